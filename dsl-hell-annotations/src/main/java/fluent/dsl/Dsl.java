@@ -91,7 +91,7 @@ public @interface Dsl {
     String parameterName() default "impl";
 
     /**
-     * Applies to both usages (however not yet properly reflected when used in use case #2)
+     * Applies to both usages
      * Flag indicating, if last parameter of type array in DSL method should be automatically convert
      * to vararg. Varargs in DSL are very convenient, and mostly DSL splits parameters into many methods,
      * each of them can turn into vararg.
@@ -106,4 +106,106 @@ public @interface Dsl {
      */
     boolean staticEntryForStaticBinding() default true;
 
+    /**
+     * Applies only to usage #1 (on class / interface)
+     * Flag requesting generation of asynchronous companion DSL next to the standard one. It has the same sentences,
+     * but every sentence completion submits the bound method call to an executor passed to the factory method, and
+     * returns CompletableFuture of it's result (CompletableFuture&lt;Void&gt; for void methods).
+     * Name of the async DSL is simple name of the annotated class / interface with suffix "AsyncDsl", or
+     * {@link #className()} with suffix "Async" if it's defined.
+     * Async DSL keeps collected parameters until the call is executed, so it is never implemented by
+     * {@link Implementation#CURSOR}, and it doesn't have static entry methods.
+     *
+     * @return Flag indicating generation of the async DSL. Default is not to generate it.
+     */
+    boolean async() default false;
+
+    /**
+     * Applies only to usage #1 (on interface)
+     * Flag requesting generation of class Recording nested in the root DSL interface. It implements the binding
+     * interface, but instead of executing, every call is appended to compact in-memory buffer, which can be later
+     * replayed on real binding using method replay(binding) as many times as needed.
+     * Values returned by the recording are always default (null, 0 or false), and static methods are not recorded.
+     *
+     * @return Flag indicating generation of the recording. Default is not to generate it.
+     */
+    boolean recording() default false;
+
+    /**
+     * Applies only to usage #1 (on class / interface)
+     * Flag requesting instrumentation of the generated DSL. Every sentence then records count of invocations, count
+     * of errors and latency histogram of the bound method call. Metrics are available via generated static method
+     * metrics() of the root DSL interface, and as JMX MBean (see {@link fluent.dsl.metrics.DslMetrics}).
+     * The async DSL is not instrumented.
+     *
+     * @return Flag indicating instrumentation of the DSL. Default is no instrumentation.
+     */
+    boolean metrics() default false;
+
+    /**
+     * Applies only to usage #1 (on class / interface)
+     * Flag requesting generation of JFR event (subclass of jdk.jfr.Event) for every sentence. The bound method call
+     * is then recorded as the event, carrying the sentence name and values of primitive and String parameters.
+     * Every call creates the event, but it is timed and committed only when enabled in a running flight recording.
+     * Generated code requires jdk.jfr API at compile and run time (Java 11 or Java 8 update 262 and later).
+     * The async DSL doesn't emit events.
+     *
+     * @return Flag indicating generation of JFR events. Default is not to generate them.
+     */
+    boolean jfrEvents() default false;
+
+    /**
+     * Applies only to usage #1 (on class / interface)
+     * Flag requesting merge of equivalent step interfaces. Sentences, which end with the same keywords and parameter
+     * types, then share one step interface for that tail, instead of separate nested interface for every path
+     * (e.g. mustSee(String order).in(String destination) and mustSee(String[] values).in(String target)).
+     * Shared step is declared at it's first occurrence, and referred to by qualified name from the others. Every
+     * sentence still has it's own implementation.
+     * It applies only to {@link Implementation#ANONYMOUS_CLASSES}.
+     *
+     * @return Flag indicating merge of equivalent step interfaces. Default is not to merge them.
+     */
+    boolean mergeSteps() default false;
+
+    /**
+     * Applies only to usage #1 (on class / interface)
+     * It defines, how the generated DSL interfaces get implemented.
+     *
+     * @return Implementation strategy. Default is anonymous classes.
+     */
+    Implementation implementation() default Implementation.ANONYMOUS_CLASSES;
+
+    /**
+     * Strategies of implementation of the generated DSL interfaces.
+     */
+    enum Implementation {
+
+        /**
+         * Every step of a sentence is implemented by an anonymous class nested in the previous step, so all
+         * parameters collected so far are simply in the scope.
+         */
+        ANONYMOUS_CLASSES,
+
+        /**
+         * Every step interface is implemented by a named static final class, which keeps parameters collected
+         * so far in explicit final fields, and has no reference to the previous step.
+         */
+        STEP_CLASSES,
+
+        /**
+         * Whole DSL is implemented by single mutable cursor per thread, which implements all step interfaces,
+         * keeps collected parameters in fields, and returns itself from every keyword, so steady state sentence
+         * execution doesn't allocate.
+         * The cursor is shared by all sentences started on the same thread from the same DSL instance, so a sentence
+         * must be completed before another one is started on that thread. Intermediate steps must not be kept
+         * or passed to other threads. Continuing an abandoned step fails with IllegalStateException only if the cursor
+         * is in a different state by then. If another sentence reached the same state, the step continues that one.
+         * If the step interfaces cannot be implemented by one class (e.g. methods with type parameters or same
+         * signature with different return type), then STEP_CLASSES are used. Parameter DSLs (builders) always use
+         * STEP_CLASSES.
+         */
+        CURSOR
+
+    }
+
 }
@@ -0,0 +1,96 @@
+package fluent.dsl.metrics;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.ToLongFunction;
+
+import static javax.management.ObjectName.quote;
+
+/**
+ * Metrics of all sentences of one DSL generated with {@link fluent.dsl.Dsl#metrics()}.
+ * Instance is created by the generated DSL, available via it's static method metrics(), and registered in platform
+ * MBean server as fluent.dsl:type=DslMetrics,name="DSL class name".
+ *
+ * Recording can be switched off by system property dsl.metrics=false. The flag is constant, so then the generated
+ * code just calls the binding.
+ */
+public final class DslMetrics implements DslMetricsMXBean {
+
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("dsl.metrics", "true"));
+
+    private final String name;
+    private final List<SentenceMetrics> sentences = new CopyOnWriteArrayList<>();
+
+    public DslMetrics(String name) {
+        this.name = name;
+        if(ENABLED) try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName("fluent.dsl:type=DslMetrics,name=" + quote(name)));
+        } catch (JMException | SecurityException ignored) {
+            // Same DSL loaded by another class loader, or JMX not permitted. Metrics are still available directly.
+        }
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public SentenceMetrics sentence(String name) {
+        SentenceMetrics sentence = new SentenceMetrics(name);
+        sentences.add(sentence);
+        return sentence;
+    }
+
+    public List<SentenceMetrics> sentences() {
+        return Collections.unmodifiableList(sentences);
+    }
+
+    private Map<String, Long> collect(ToLongFunction<SentenceMetrics> value) {
+        Map<String, Long> map = new LinkedHashMap<>();
+        sentences.forEach(sentence -> map.merge(sentence.name(), value.applyAsLong(sentence), Long::sum));
+        return map;
+    }
+
+    @Override
+    public Map<String, Long> getInvocations() {
+        return collect(SentenceMetrics::invocations);
+    }
+
+    @Override
+    public Map<String, Long> getErrors() {
+        return collect(SentenceMetrics::errors);
+    }
+
+    @Override
+    public Map<String, Long> getMeanNanos() {
+        return collect(SentenceMetrics::meanNanos);
+    }
+
+    @Override
+    public Map<String, Long> getMedianNanos() {
+        return collect(sentence -> sentence.percentileNanos(50));
+    }
+
+    @Override
+    public Map<String, Long> getP99Nanos() {
+        return collect(sentence -> sentence.percentileNanos(99));
+    }
+
+    @Override
+    public void reset() {
+        sentences.forEach(SentenceMetrics::reset);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(name);
+        sentences.forEach(sentence -> builder.append(System.lineSeparator()).append("  ").append(sentence));
+        return builder.toString();
+    }
+
+}
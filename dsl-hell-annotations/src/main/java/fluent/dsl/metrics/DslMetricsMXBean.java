@@ -0,0 +1,22 @@
+package fluent.dsl.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of metrics of one DSL. All attributes are maps from sentence name to the value.
+ */
+public interface DslMetricsMXBean {
+
+    Map<String, Long> getInvocations();
+
+    Map<String, Long> getErrors();
+
+    Map<String, Long> getMeanNanos();
+
+    Map<String, Long> getMedianNanos();
+
+    Map<String, Long> getP99Nanos();
+
+    void reset();
+
+}
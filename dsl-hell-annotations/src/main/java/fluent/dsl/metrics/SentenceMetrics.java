@@ -0,0 +1,106 @@
+package fluent.dsl.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Invocation count, error count and latency histogram of binding method called by one DSL sentence.
+ * Latencies are counted in fixed logarithmic buckets: bucket i contains latencies (in nanoseconds) lower than 2^i,
+ * and at least 2^(i-1). Recording is lock free, so it's cheap also when sentences are executed by many threads.
+ */
+public final class SentenceMetrics {
+
+    public static final int BUCKETS = 64;
+
+    private final String name;
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder[] histogram = new LongAdder[BUCKETS];
+
+    public SentenceMetrics(String name) {
+        this.name = name;
+        for(int i = 0; i < BUCKETS; i++)
+            histogram[i] = new LongAdder();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public void record(long nanos) {
+        histogram[bucket(nanos)].increment();
+        totalNanos.add(nanos);
+    }
+
+    public void error() {
+        errors.increment();
+    }
+
+    public long invocations() {
+        long invocations = 0;
+        for(LongAdder bucket : histogram)
+            invocations += bucket.sum();
+        return invocations;
+    }
+
+    public long errors() {
+        return errors.sum();
+    }
+
+    public long totalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long meanNanos() {
+        long invocations = invocations();
+        return invocations == 0 ? 0 : totalNanos() / invocations;
+    }
+
+    public long[] histogram() {
+        long[] counts = new long[BUCKETS];
+        for(int i = 0; i < BUCKETS; i++)
+            counts[i] = histogram[i].sum();
+        return counts;
+    }
+
+    /**
+     * Percentile of recorded latencies. As latencies are counted in buckets, it returns upper bound of the bucket,
+     * in which the percentile lies, so the result may be up to twice the real value.
+     *
+     * @param percentile Requested percentile between 0 and 100.
+     * @return Upper bound of the percentile in nanoseconds, or 0 if nothing was recorded.
+     */
+    public long percentileNanos(double percentile) {
+        long[] counts = histogram();
+        long invocations = 0;
+        for(long count : counts)
+            invocations += count;
+        long rank = (long) Math.ceil(invocations * percentile / 100);
+        for(int i = 0; i < BUCKETS; i++) {
+            rank -= counts[i];
+            if(counts[i] > 0 && rank <= 0)
+                return upperBound(i);
+        }
+        return 0;
+    }
+
+    public void reset() {
+        errors.reset();
+        totalNanos.reset();
+        for(LongAdder bucket : histogram)
+            bucket.reset();
+    }
+
+    static int bucket(long nanos) {
+        return nanos <= 0 ? 0 : BUCKETS - Long.numberOfLeadingZeros(nanos);
+    }
+
+    static long upperBound(int bucket) {
+        return bucket == BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + invocations() + " invocations, " + errors() + " errors, mean " + meanNanos() + " ns, p99 " + percentileNanos(99) + " ns";
+    }
+
+}
@@ -0,0 +1,14 @@
+package fluent.dsl.benchmark;
+
+import fluent.dsl.Dsl;
+import fluent.dsl.benchmark.Keywords.*;
+
+import static fluent.dsl.Dsl.Implementation.STEP_CLASSES;
+
+@Dsl(implementation = STEP_CLASSES, jfrEvents = true)
+@withApplication
+public interface EventAutomation {
+
+    void injectOrder(@injects String order, @into String destination);
+
+}
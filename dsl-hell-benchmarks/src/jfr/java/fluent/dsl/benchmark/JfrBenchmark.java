@@ -0,0 +1,42 @@
+package fluent.dsl.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sentences of DSL with JFR events, while no flight recording is running, against the same DSL without the events.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JfrBenchmark {
+
+    private final String order = "Order 1";
+    private final String destination = "Exchange";
+
+    private StepAutomationDsl plain;
+    private EventAutomationDsl events;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        BlackholeAutomation automation = new BlackholeAutomation(blackhole);
+        plain = StepAutomationDsl.create(automation);
+        events = EventAutomationDsl.create(automation::injectOrder);
+    }
+
+    @Benchmark
+    public void plain() {
+        plain.withApplication().injects(order).into(destination);
+    }
+
+    @Benchmark
+    public void events() {
+        events.withApplication().injects(order).into(destination);
+    }
+
+}
@@ -0,0 +1,19 @@
+package fluent.dsl.benchmark;
+
+import fluent.dsl.Dsl;
+import fluent.dsl.benchmark.Keywords.*;
+
+import java.util.concurrent.TimeUnit;
+
+
+@Dsl
+@withApplication
+public interface Automation {
+
+    void injectOrder(@injects String order, @into String destination);
+
+    void verifyOrder(@mustSee String order, @in String destination);
+
+    void verifyTime(@mustSee long value, TimeUnit unit);
+
+}
@@ -0,0 +1,39 @@
+package fluent.dsl.benchmark;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+public class BlackholeAutomation implements Automation, StepAutomation, CursorAutomation, GenericAutomation<String>, MeasuredAutomation {
+
+    private final Blackhole blackhole;
+
+    public BlackholeAutomation(Blackhole blackhole) {
+        this.blackhole = blackhole;
+    }
+
+    @Override
+    public void injectOrder(String order, String destination) {
+        blackhole.consume(order);
+        blackhole.consume(destination);
+    }
+
+    @Override
+    public void verifyOrder(String order, String destination) {
+        blackhole.consume(order);
+        blackhole.consume(destination);
+    }
+
+    @Override
+    public void verifyTime(long value, TimeUnit unit) {
+        blackhole.consume(value);
+        blackhole.consume(unit);
+    }
+
+    @Override
+    public void injectElement(String element, String destination) {
+        blackhole.consume(element);
+        blackhole.consume(destination);
+    }
+
+}
@@ -0,0 +1,37 @@
+package fluent.dsl.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static fluent.dsl.benchmark.Order.Side.BUY;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuilderBenchmark {
+
+    private final String orderId = "Order 1";
+    private final int quantity = 100;
+    private final String ric = "VOD.L";
+    private final double price = 101.5;
+
+    @Benchmark
+    public Order constructor() {
+        return new Order(orderId, BUY, quantity, ric, price);
+    }
+
+    @Benchmark
+    public Order anonymousClasses() {
+        return OrderWith.orderId(orderId).side(BUY).quantity(quantity).ric(ric).price(price);
+    }
+
+    @Benchmark
+    public Order stepClasses() {
+        return OrderStepsWith.orderId(orderId).side(BUY).quantity(quantity).ric(ric).price(price);
+    }
+
+}
@@ -0,0 +1,12 @@
+package fluent.dsl.benchmark;
+
+import fluent.dsl.Dsl;
+import fluent.dsl.benchmark.Keywords.injects;
+import fluent.dsl.benchmark.Keywords.into;
+
+@Dsl
+public interface GenericAutomation<T> {
+
+    void injectElement(@injects T element, @into String destination);
+
+}
@@ -0,0 +1,14 @@
+package fluent.dsl.benchmark;
+
+import fluent.dsl.Dsl;
+
+@Dsl
+public interface Keywords {
+
+    @interface withApplication {}
+    @interface injects {}
+    @interface into {}
+    @interface mustSee {}
+    @interface in {}
+
+}
@@ -0,0 +1,51 @@
+package fluent.dsl.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+
+    private final String order = "Order 1";
+    private final String destination = "Exchange";
+
+    private StepAutomationDsl plain;
+    private MeasuredAutomationDsl measured;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        BlackholeAutomation automation = new BlackholeAutomation(blackhole);
+        plain = StepAutomationDsl.create(automation);
+        measured = MeasuredAutomationDsl.create(automation);
+    }
+
+    @Benchmark
+    public void plain() {
+        plain.withApplication().injects(order).into(destination);
+    }
+
+    @Benchmark
+    public void measured() {
+        measured.withApplication().injects(order).into(destination);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Ddsl.metrics=false")
+    public void measuredDisabled() {
+        measured.withApplication().injects(order).into(destination);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void measuredContended() {
+        measured.withApplication().injects(order).into(destination);
+    }
+
+}
@@ -0,0 +1,15 @@
+package fluent.dsl.benchmark;
+
+import fluent.dsl.Dsl;
+import fluent.dsl.benchmark.Keywords.*;
+
+import static fluent.dsl.Dsl.Implementation.STEP_CLASSES;
+
+@Dsl
+public interface OrderAutomation {
+
+    void injectOrder(@injects @Dsl Order order, @into String destination);
+
+    void verifyOrder(@mustSee @Dsl(className = "OrderStepsWith", implementation = STEP_CLASSES) Order order, @in String destination);
+
+}
@@ -0,0 +1,60 @@
+package fluent.dsl.benchmark;
+
+import fluent.api.model.*;
+import fluent.api.model.impl.ModelFactoryImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static fluent.dsl.generator.DslWriter.dslWriter;
+import static java.util.Collections.singletonList;
+import static javax.lang.model.type.TypeKind.INT;
+import static javax.lang.model.type.TypeKind.VOID;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderBenchmark {
+
+    @Param({"100"})
+    private int steps;
+
+    @Param({"20"})
+    private int terminals;
+
+    private InterfaceModel model;
+
+    @Setup
+    public void setUp() {
+        ModelFactory factory = new ModelFactoryImpl(null, null);
+        ClassModel string = factory.classModel("java.lang", "String");
+        InterfaceModel binding = factory.interfaceModel("fluent.dsl.benchmark", "Binding");
+        VarModel impl = factory.parameter(binding, "impl");
+        model = factory.interfaceModel("fluent.dsl.benchmark", "BindingDsl");
+        for(int s = 0; s < steps; s++) {
+            VarModel order = factory.parameter(string, "order");
+            InterfaceModel step = factory.interfaceModel("", "Step" + s + "String");
+            for(int t = 0; t < terminals; t++) {
+                VarModel quantity = factory.parameter(factory.primitive(INT), "quantity");
+                MethodModel terminal = factory.method("end" + t, quantity).returnType(factory.primitive(VOID));
+                terminal.body().add(factory.statementModel(impl, factory.method("action" + s + "_" + t, order, quantity).returnType(factory.primitive(VOID))));
+                step.methods().add(terminal);
+            }
+            model.methods().add(factory.method("step" + s, order).returnType(step));
+            model.types().add(step);
+        }
+        MethodModel create = factory.staticMethod("create", singletonList(impl)).returnType(model);
+        model.methods().add(create);
+    }
+
+    @Benchmark
+    public String render() {
+        StringBuilder builder = new StringBuilder();
+        dslWriter(builder).writeFile(model);
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,59 @@
+package fluent.dsl.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SentenceBenchmark {
+
+    private final String order = "Order 1";
+    private final String destination = "Exchange";
+
+    private BlackholeAutomation direct;
+    private AutomationDsl anonymousClasses;
+    private StepAutomationDsl stepClasses;
+    private CursorAutomationDsl cursor;
+    private GenericAutomationDsl<String> generic;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        direct = new BlackholeAutomation(blackhole);
+        anonymousClasses = AutomationDsl.create(direct);
+        stepClasses = StepAutomationDsl.create(direct);
+        cursor = CursorAutomationDsl.create(direct);
+        generic = GenericAutomationDsl.create(direct);
+    }
+
+    @Benchmark
+    public void direct() {
+        direct.injectOrder(order, destination);
+    }
+
+    @Benchmark
+    public void anonymousClasses() {
+        anonymousClasses.withApplication().injects(order).into(destination);
+    }
+
+    @Benchmark
+    public void stepClasses() {
+        stepClasses.withApplication().injects(order).into(destination);
+    }
+
+    @Benchmark
+    public void cursor() {
+        cursor.withApplication().injects(order).into(destination);
+    }
+
+    @Benchmark
+    public void generic() {
+        generic.injects(order).into(destination);
+    }
+
+}
@@ -0,0 +1,20 @@
+package fluent.dsl.benchmark;
+
+import fluent.dsl.Dsl;
+import fluent.dsl.bdd.When;
+import fluent.dsl.bdd.then;
+
+@Dsl
+public final class StaticAutomation {
+
+    static String action;
+    static String verification;
+
+    private StaticAutomation() {}
+
+    public static void method(@When String action, @then String verification) {
+        StaticAutomation.action = action;
+        StaticAutomation.verification = verification;
+    }
+
+}
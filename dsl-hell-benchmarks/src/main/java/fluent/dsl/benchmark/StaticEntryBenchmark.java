@@ -0,0 +1,44 @@
+package fluent.dsl.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StaticEntryBenchmark {
+
+    private final String action = "inject order";
+    private final String verification = "order seen";
+
+    @Benchmark
+    public void direct() {
+        StaticAutomation.method(action, verification);
+    }
+
+    @Benchmark
+    public void staticEntry() {
+        StaticAutomationDsl.Static.When(action).then(verification);
+    }
+
+    /*
+     * Without escape analysis every allocation of the DSL chain shows up, as it would in call sites, which JIT doesn't
+     * inline completely.
+     */
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-XX:-DoEscapeAnalysis")
+    public void directWithoutEscapeAnalysis() {
+        StaticAutomation.method(action, verification);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-XX:-DoEscapeAnalysis")
+    public void staticEntryWithoutEscapeAnalysis() {
+        StaticAutomationDsl.Static.When(action).then(verification);
+    }
+
+}
@@ -0,0 +1,20 @@
+package fluent.dsl.benchmark;
+
+import fluent.dsl.Dsl;
+import fluent.dsl.benchmark.Keywords.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static fluent.dsl.Dsl.Implementation.STEP_CLASSES;
+
+@Dsl(implementation = STEP_CLASSES)
+@withApplication
+public interface StepAutomation {
+
+    void injectOrder(@injects String order, @into String destination);
+
+    void verifyOrder(@mustSee String order, @in String destination);
+
+    void verifyTime(@mustSee long value, TimeUnit unit);
+
+}
@@ -0,0 +1,53 @@
+package fluent.dsl.benchmark.check;
+
+import fluent.dsl.benchmark.Order;
+import fluent.dsl.benchmark.OrderCheck;
+import fluent.validation.Check;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static fluent.dsl.benchmark.Order.Side.BUY;
+
+/**
+ * Generated check with primitive-specialized expectations against the same expectations expressed as predicates
+ * of boxed getter values.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CheckBenchmark {
+
+    private final Order order = new Order("A-1", BUY, 1000, "EUR=", 99.5);
+
+    private final Check<Order> specialized = OrderCheck.create()
+            .orderId("A-1")
+            .side(BUY)
+            .quantityBetween(500, 1500)
+            .price(99.5, 0.01);
+
+    private final Predicate<Order> boxed = has(Order::getOrderId, "A-1"::equals)
+            .and(has(Order::getSide, BUY::equals))
+            .and(has(Order::getQuantity, quantity -> quantity >= 500 && quantity <= 1500))
+            .and(has(Order::getPrice, price -> Math.abs(price - 99.5) <= 0.01));
+
+    private static <V> Predicate<Order> has(Function<Order, V> getter, Predicate<? super V> check) {
+        return order -> check.test(getter.apply(order));
+    }
+
+    @Benchmark
+    public boolean specialized() {
+        return specialized.test(order);
+    }
+
+    @Benchmark
+    public boolean boxed() {
+        return boxed.test(order);
+    }
+
+}
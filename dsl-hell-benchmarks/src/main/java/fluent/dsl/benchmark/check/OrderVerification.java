@@ -0,0 +1,15 @@
+package fluent.dsl.benchmark.check;
+
+import fluent.dsl.Dsl;
+import fluent.dsl.benchmark.Keywords.mustSee;
+import fluent.dsl.benchmark.Order;
+import fluent.validation.Check;
+
+@Dsl
+public interface OrderVerification {
+
+    @interface matching {}
+
+    void verifyOrder(@mustSee Order order, @matching @Dsl(className = "OrderCheck") Check<Order> check);
+
+}
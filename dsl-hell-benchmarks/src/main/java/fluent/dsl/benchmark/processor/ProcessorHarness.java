@@ -0,0 +1,212 @@
+package fluent.dsl.benchmark.processor;
+
+import fluent.dsl.processor.DslAnnotationProcessor;
+
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.element.TypeElement;
+import javax.tools.*;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Synthesizes DSL bindings, compiles them in-process with DslAnnotationProcessor, and measures cost of annotation
+ * processing and of the rest of the compilation.
+ */
+public final class ProcessorHarness {
+
+    private static final String PACKAGE = "fluent.dsl.synthetic";
+
+    private final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    private final int parallelism;
+
+    public ProcessorHarness(int parallelism) {
+        this.parallelism = parallelism;
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    public ProcessorHarness() {
+        this(1);
+    }
+
+    /**
+     * Compile N bindings with M methods each. Every method is a sentence of K keywords, and sentences share prefixes
+     * the same way, as they do in real DSLs.
+     */
+    public Result run(int bindings, int methods, int keywords) {
+        Path directory = null;
+        try {
+            directory = Files.createTempDirectory("dsl-hell-harness");
+            Path sources = Files.createDirectories(directory.resolve("sources"));
+            Path generated = Files.createDirectories(directory.resolve("generated"));
+            Path classes = Files.createDirectories(directory.resolve("classes"));
+            List<Path> files = new ArrayList<>();
+            for(int i = 0; i < bindings; i++)
+                files.add(Files.write(Files.createDirectories(sources.resolve(PACKAGE.replace('.', '/'))).resolve("Binding" + i + ".java"), binding(i, methods, keywords).getBytes()));
+            return compile(files, generated, classes, new Result(bindings, methods, keywords, parallelism == 1));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private Result compile(List<Path> files, Path generated, Path classes, Result result) throws IOException {
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try(StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            List<String> options = asList("-classpath", System.getProperty("java.class.path"), "-s", generated.toString(), "-d", classes.toString(), "-nowarn", "-A" + DslAnnotationProcessor.PARALLELISM + "=" + parallelism);
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null, fileManager.getJavaFileObjectsFromFiles(files.stream().map(Path::toFile).collect(toList())));
+            task.setProcessors(singletonList(new MeasuredProcessor(result)));
+            long time = System.nanoTime();
+            long bytes = allocatedBytes();
+            boolean success = task.call();
+            result.compilationNanos = System.nanoTime() - time - result.processingNanos;
+            result.compilationBytes = allocatedBytes() - bytes - result.processingBytes;
+            if(!success)
+                throw new IllegalStateException("Compilation of synthesized bindings failed: " + diagnostics.getDiagnostics());
+        }
+        try(Stream<Path> stream = Files.walk(generated)) {
+            result.generatedBytes = stream.filter(Files::isRegularFile).mapToLong(path -> path.toFile().length()).sum();
+        }
+        return result;
+    }
+
+    /**
+     * Allocation is counted only for the compiling thread. Rendering with parallelism > 1 allocates also in workers of
+     * a pool, which is shut down at the end of the round, and terminated threads are not accounted any more. So the
+     * allocation is reported only with parallelism 1.
+     */
+    private long allocatedBytes() {
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    static String binding(int index, int methods, int keywords) {
+        int choices = (int) Math.ceil(Math.pow(methods, 1.0 / keywords));
+        StringBuilder builder = new StringBuilder("package ").append(PACKAGE).append(";\n\n")
+                .append("@fluent.dsl.Dsl\npublic interface Binding").append(index).append(" {\n");
+        for(int k = 0; k < keywords; k++)
+            for(int c = 0; c < choices; c++)
+                builder.append("    @interface keyword").append(k).append("_").append(c).append(" {}\n");
+        for(int m = 0; m < methods; m++) {
+            builder.append("    void method").append(m).append("(");
+            for(int k = 0, digits = m; k < keywords; k++, digits /= choices)
+                builder.append(k > 0 ? ", " : "").append("@keyword").append(k).append("_").append(digits % choices).append(" String p").append(k);
+            builder.append(");\n");
+        }
+        return builder.append("}\n").toString();
+    }
+
+    private static void delete(Path directory) {
+        if(directory != null) try(Stream<Path> stream = Files.walk(directory)) {
+            stream.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void main(String[] args) {
+        int methods = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int keywords = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int parallelism = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        ProcessorHarness harness = new ProcessorHarness(parallelism);
+        harness.run(50, methods, keywords);
+        System.out.println(Result.HEADER);
+        for(int bindings = 50; bindings <= 800; bindings *= 2)
+            System.out.println(harness.run(bindings, methods, keywords));
+    }
+
+    public static final class Result {
+        static final String HEADER = String.format("%8s %8s %8s %15s %15s %15s %15s %15s", "bindings", "methods", "keywords", "processing[ms]", "processing[MB]", "compilation[ms]", "compilation[MB]", "generated[kB]");
+
+        private final int bindings;
+        private final int methods;
+        private final int keywords;
+        private final boolean allocationMeasured;
+        private long processingNanos;
+        private long processingBytes;
+        private long compilationNanos;
+        private long compilationBytes;
+        private long generatedBytes;
+
+        private Result(int bindings, int methods, int keywords, boolean allocationMeasured) {
+            this.bindings = bindings;
+            this.methods = methods;
+            this.keywords = keywords;
+            this.allocationMeasured = allocationMeasured;
+        }
+
+        public long processingNanos() {
+            return processingNanos;
+        }
+
+        public long processingBytes() {
+            return bytes(processingBytes);
+        }
+
+        public long compilationNanos() {
+            return compilationNanos;
+        }
+
+        public long compilationBytes() {
+            return bytes(compilationBytes);
+        }
+
+        private long bytes(long bytes) {
+            if(!allocationMeasured)
+                throw new IllegalStateException("Allocation is measured only with parallelism 1.");
+            return bytes;
+        }
+
+        public long generatedBytes() {
+            return generatedBytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%8d %8d %8d %15.1f %15s %15.1f %15s %15.1f", bindings, methods, keywords, processingNanos / 1e6, megabytes(processingBytes), compilationNanos / 1e6, megabytes(compilationBytes), generatedBytes / 1e3);
+        }
+
+        private String megabytes(long bytes) {
+            return allocationMeasured ? String.format("%.1f", bytes / 1e6) : "n/a";
+        }
+    }
+
+    private final class MeasuredProcessor extends DslAnnotationProcessor {
+        private final Result result;
+
+        private MeasuredProcessor(Result result) {
+            this.result = result;
+        }
+
+        @Override
+        public Set<String> getSupportedAnnotationTypes() {
+            return singleton("fluent.dsl.Dsl");
+        }
+
+        @Override
+        public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+            long time = System.nanoTime();
+            long bytes = allocatedBytes();
+            try {
+                return super.process(annotations, roundEnv);
+            } finally {
+                result.processingNanos += System.nanoTime() - time;
+                result.processingBytes += allocatedBytes() - bytes;
+            }
+        }
+    }
+
+}
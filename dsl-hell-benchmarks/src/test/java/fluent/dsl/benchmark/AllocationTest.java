@@ -0,0 +1,62 @@
+package fluent.dsl.benchmark;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+
+public class AllocationTest {
+
+    private static final int WARMUP = 20_000;
+    private static final int SENTENCES = 100_000;
+
+    private final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final CountingAutomation automation = new CountingAutomation();
+    private final String order = "Order 1";
+    private final String destination = "Exchange";
+
+    @BeforeClass
+    public void setUp() {
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    private long allocatedBytesPerSentence(Runnable sentence) {
+        for(int i = 0; i < WARMUP; i++) {
+            sentence.run();
+        }
+        long before = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        for(int i = 0; i < SENTENCES; i++) {
+            sentence.run();
+        }
+        return (threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - before) / SENTENCES;
+    }
+
+    @Test
+    public void cursorSentenceDoesNotAllocate() {
+        CursorAutomationDsl dsl = CursorAutomationDsl.create(automation);
+        assertEquals(allocatedBytesPerSentence(() -> dsl.withApplication().injects(order).into(destination)), 0);
+    }
+
+    private static final class CountingAutomation implements CursorAutomation {
+        private long count;
+
+        @Override
+        public void injectOrder(String order, String destination) {
+            count++;
+        }
+
+        @Override
+        public void verifyOrder(String order, String destination) {
+            count++;
+        }
+
+        @Override
+        public void verifyTime(long value, TimeUnit unit) {
+            count++;
+        }
+    }
+
+}
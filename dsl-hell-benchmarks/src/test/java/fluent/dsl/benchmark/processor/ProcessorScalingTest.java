@@ -0,0 +1,48 @@
+package fluent.dsl.benchmark.processor;
+
+import fluent.dsl.benchmark.processor.ProcessorHarness.Result;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertTrue;
+
+public class ProcessorScalingTest {
+
+    private static final int FACTOR = 4;
+    private static final double TOLERANCE = 1.5;
+
+    private final ProcessorHarness harness = new ProcessorHarness();
+
+    @BeforeClass
+    public void warmUp() {
+        harness.run(20, 20, 4);
+    }
+
+    private static void assertLinear(String what, double small, double large) {
+        assertTrue(large <= small * FACTOR * TOLERANCE, what + " grows from " + small + " to " + large + " for " + FACTOR + " times bigger input");
+    }
+
+    @Test
+    public void processingScalesLinearlyWithBindings() {
+        Result small = harness.run(25, 20, 4);
+        Result large = harness.run(25 * FACTOR, 20, 4);
+        assertLinear("Allocation", small.processingBytes(), large.processingBytes());
+        assertLinear("Generated source size", small.generatedBytes(), large.generatedBytes());
+    }
+
+    @Test
+    public void processingScalesLinearlyWithMethods() {
+        Result small = harness.run(5, 50, 4);
+        Result large = harness.run(5, 50 * FACTOR, 4);
+        assertLinear("Allocation", small.processingBytes(), large.processingBytes());
+        assertLinear("Generated source size", small.generatedBytes(), large.generatedBytes());
+    }
+
+    @Test
+    public void processingScalesLinearlyWithSentencesSharingPrefixes() {
+        Result small = harness.run(1, 1000, 2);
+        Result large = harness.run(1, 1000 * FACTOR, 2);
+        assertLinear("Allocation", small.processingBytes(), large.processingBytes());
+    }
+
+}
@@ -4,29 +4,50 @@ import fluent.api.model.*;
 import fluent.dsl.Dsl;
 import fluent.dsl.processor.DslAnnotationProcessorPlugin;
 import fluent.dsl.processor.DslAnnotationProcessorPluginFactory;
+import fluent.dsl.processor.KeywordIndex;
 import fluent.validation.Check;
 
-import javax.lang.model.element.*;
-import javax.lang.model.type.TypeMirror;
-import javax.lang.model.util.ElementFilter;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.VariableElement;
 
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Stream;
+import java.util.Set;
 
-import static fluent.dsl.plugin.DslUtils.isGetter;
 import static fluent.dsl.plugin.DslUtils.override;
+import static fluent.dsl.plugin.DslUtils.statement;
+import static fluent.dsl.plugin.DslUtils.unCapitalize;
 import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.Objects.nonNull;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PROTECTED;
+import static javax.lang.model.element.Modifier.STATIC;
+import static javax.lang.model.type.TypeKind.BOOLEAN;
+import static javax.lang.model.type.TypeKind.INT;
 
+/**
+ * Generates fluent check of getters, e.g. {@code OrderWith.create().orderId("A").quantityBetween(10, 20)}. The check
+ * extends {@link Check}, and evaluates all expectations in single straight-line method {@code matches}, which stops
+ * on first mismatch, and doesn't allocate. Getters of type int, long and double get primitive-specialized expectations
+ * (range, tolerance, Int/Long/DoublePredicate), so values are never boxed. Other getters accept nested Check.
+ * Description of the mismatch is built only on request, after the check failed.
+ */
 public class CheckDslPlugin implements DslAnnotationProcessorPlugin {
+
+    private static final int EXACT = 1;
+    private static final int RANGE = 2;
+    private static final int TOLERANCE = 3;
+    private static final int PREDICATE = 4;
+    private static final Set<String> RANGES = new HashSet<>(asList("int", "long", "double"));
+
     private final ModelFactory factory;
 
     public CheckDslPlugin(ModelFactory factory) {
         this.factory = factory;
-        boxedTypes.put("int", factory.classModel("java.lang", "Integer"));
-        boxedTypes.put("boolean", factory.classModel("java.lang", "Boolean"));
-        boxedTypes.put("long", factory.classModel("java.lang", "Long"));
     }
 
     @Override
@@ -41,33 +62,141 @@ public class CheckDslPlugin implements DslAnnotationProcessorPlugin {
         String packageName = override(dsl.packageName(), typeModel.packageName());
         String className = override(dsl.className(), typeModel.rawType().simpleName() + "With");
         ClassModel fluentCheck = factory.classModel(packageName, className);
-        //fluentCheck.superClass(factory.classModel("fluent.validation", "AbstractCheckDsl").typeParameters(asList(fluentCheck, typeModel)));
+        fluentCheck.modifiers().keywords().add(FINAL);
+        fluentCheck.superClass(factory.classModel("fluent.validation", "Check").typeParameters(singletonList(typeModel)));
+        MethodModel constructor = factory.constructor(fluentCheck);
+        constructor.modifiers().keywords().clear();
+        constructor.modifiers().keywords().add(PRIVATE);
+        fluentCheck.methods().add(constructor);
+        MethodModel factoryMethod = factory.staticMethod(dsl.factoryMethod(), emptyList()).returnType(fluentCheck);
+        factoryMethod.body().add(statement("return new " + fluentCheck.fullName() + "();"));
+        fluentCheck.methods().add(factoryMethod);
+        VarModel actual = factory.parameter(typeModel, "actual");
+        MethodModel test = factory.method("matches", actual).returnType(factory.primitive(BOOLEAN));
+        MethodModel evaluate = factory.method(asList(PROTECTED), "evaluate", asList(actual, factory.parameter(factory.classModel("fluent.validation.result", "ResultFactory"), "factory")))
+                .returnType(factory.classModel("fluent.validation.result", "Result"));
+        evaluate.body().add(statement("return factory.predicateResult(this, actual, matches(actual));"));
+        MethodModel mismatch = factory.method("mismatch", actual).returnType(factory.classModel("java.lang", "String"));
+        MethodModel description = factory.method("toString").returnType(factory.classModel("java.lang", "String"));
+        mismatch.body().add(statement("StringBuilder mismatch = new StringBuilder();"));
+        description.body().add(statement("StringBuilder description = new StringBuilder(\"" + typeModel.rawType().simpleName() + " with\");"));
         for(MethodModel method : typeModel.methods())
             if(isGetter(method))
-                processGetter(fluentCheck, method);
+                processGetter(fluentCheck, method, test, mismatch, description);
+        test.body().add(statement("return true;"));
+        mismatch.body().add(statement("return mismatch.length() == 0 ? null : mismatch.toString();"));
+        description.body().add(statement("return description.toString();"));
+        fluentCheck.methods().addAll(asList(test, evaluate, mismatch, description));
         return fluentCheck;
     }
 
     private boolean isGetter(MethodModel method) {
-        return method.name().startsWith("get") && method.parameters().isEmpty();
+        if(!method.parameters().isEmpty() || !method.returnsValue() || method.returnType().isTypeVariable() || method.modifiers().keywords().contains(STATIC))
+            return false;
+        String name = method.name();
+        return name.startsWith("get") && name.length() > 3 && !name.equals("getClass")
+                || name.startsWith("is") && name.length() > 2 && method.returnType().fullName().equals("boolean");
     }
 
-    private void processGetter(ClassModel fluentCheck, MethodModel method) {
-        String name = method.name();
-        //fluentCheck.methods().add(factory.method(name, factory.parameter(method.returnType(), "expectedValue")).returnType(fluentCheck));
-        //fluentCheck.methods().add(factory.method(name, factory.parameter(factory.interfaceModel("fluent.validation", "Check<? super " + boxed(method.returnType()).fullName() + ">"), "expectation")).returnType(fluentCheck));
+    private void processGetter(ClassModel fluentCheck, MethodModel method, MethodModel test, MethodModel mismatch, MethodModel description) {
+        TypeModel<?> type = method.returnType();
+        String property = unCapitalize(method.name().substring(method.name().startsWith("is") ? 2 : 3));
+        // Keywords, e.g. of getDefault(), can't be used as names of the expectations.
+        String name = SourceVersion.isKeyword(property) ? property + "_" : property;
+        String mode = "$" + name;
+        String actual = "actual." + method.name() + "()";
+        TypeModel<?> predicate = predicate(type);
+        field(fluentCheck, factory.primitive(INT), mode);
+        field(fluentCheck, type, name);
+
+        MethodModel matches = factory.method(asList(PRIVATE), name + "$matches", singletonList(factory.parameter(type, "actual"))).returnType(factory.primitive(BOOLEAN));
+        MethodModel expectation = factory.method(asList(PRIVATE), name + "$expectation", emptyList()).returnType(factory.classModel("java.lang", "String"));
+        matches.body().add(statement("switch(" + mode + ") {"));
+        expectation.body().add(statement("switch(" + mode + ") {"));
+
+        expect(fluentCheck, name, mode, EXACT, singletonList(name), factory.parameter(type, name));
+        matches.body().add(statement("\tcase " + EXACT + ": return " + equal(type, "this." + name, "actual") + ";"));
+        if(RANGES.contains(type.fullName())) {
+            field(fluentCheck, type, name + "$max");
+            expect(fluentCheck, name + "Between", mode, RANGE, asList(name, name + "$max"), factory.parameter(type, "min"), factory.parameter(type, "max"));
+            matches.body().add(statement("\tcase " + RANGE + ": return actual >= this." + name + " && actual <= this." + name + "$max;"));
+            expectation.body().add(statement("\tcase " + RANGE + ": return \"between \" + this." + name + " + \" and \" + this." + name + "$max;"));
+        }
+        if(type.fullName().equals("double")) {
+            field(fluentCheck, type, name + "$tolerance");
+            expect(fluentCheck, name, mode, TOLERANCE, asList(name, name + "$tolerance"), factory.parameter(type, name), factory.parameter(type, "tolerance"));
+            matches.body().add(statement("\tcase " + TOLERANCE + ": return Math.abs(actual - this." + name + ") <= this." + name + "$tolerance;"));
+            expectation.body().add(statement("\tcase " + TOLERANCE + ": return this." + name + " + \" +- \" + this." + name + "$tolerance;"));
+        }
+        if(nonNull(predicate)) {
+            field(fluentCheck, predicate, name + "$predicate");
+            expect(fluentCheck, name, mode, PREDICATE, singletonList(name + "$predicate"), factory.parameter(predicate, "predicate"));
+            matches.body().add(statement("\tcase " + PREDICATE + ": return this." + name + "$predicate.test(actual);"));
+            expectation.body().add(statement("\tcase " + PREDICATE + ": return \"matching \" + this." + name + "$predicate;"));
+        }
+        matches.body().add(statement("\tdefault: return true;"));
+        matches.body().add(statement("}"));
+        expectation.body().add(statement("\tdefault: return String.valueOf(" + string(type, "this." + name) + ");"));
+        expectation.body().add(statement("}"));
+        fluentCheck.methods().addAll(asList(matches, expectation));
+
+        String differs = mode + " != 0 && !" + name + "$matches(" + actual + ")";
+        test.body().add(statement("if(" + differs + ")"));
+        test.body().add(statement("\treturn false;"));
+        mismatch.body().add(statement("if(" + differs + ")"));
+        mismatch.body().add(statement("\tmismatch.append(\"" + property + ": expected \").append(" + name + "$expectation()).append(\" but was \").append(" + string(type, actual) + ").append(\"\\n\");"));
+        description.body().add(statement("if(" + mode + " != 0)"));
+        description.body().add(statement("\tdescription.append(\" " + property + " \").append(" + name + "$expectation());"));
     }
 
-    private TypeModel<?> boxed(TypeModel<?> type) {
-        return boxedTypes.getOrDefault(type.fullName(), type);
+    private void field(ClassModel fluentCheck, TypeModel<?> type, String name) {
+        VarModel field = factory.parameter(type, name);
+        field.modifiers().keywords().add(PRIVATE);
+        fluentCheck.fields().put(name, field);
     }
 
-    private final Map<String, TypeModel<?>> boxedTypes = new HashMap<>();
+    private void expect(ClassModel fluentCheck, String name, String mode, int kind, List<String> fields, VarModel... parameters) {
+        MethodModel expectation = factory.method(name, parameters).returnType(fluentCheck);
+        for(int i = 0; i < parameters.length; i++)
+            expectation.body().add(statement("this." + fields.get(i) + " = " + parameters[i].name() + ";"));
+        expectation.body().add(statement("this." + mode + " = " + kind + ";"));
+        expectation.body().add(statement("return this;"));
+        fluentCheck.methods().add(expectation);
+    }
+
+    private TypeModel<?> predicate(TypeModel<?> type) {
+        switch (type.fullName()) {
+            case "int": return factory.interfaceModel("java.util.function", "IntPredicate");
+            case "long": return factory.interfaceModel("java.util.function", "LongPredicate");
+            case "double": return factory.interfaceModel("java.util.function", "DoublePredicate");
+        }
+        return type.isPrimitive() ? null : factory.classModel("fluent.validation", "Check").typeParameters(singletonList(factory.classModel("", "? super " + type.fullName())));
+    }
+
+    private static String equal(TypeModel<?> type, String expected, String actual) {
+        switch (type.fullName()) {
+            case "float": return "Float.compare(" + expected + ", " + actual + ") == 0";
+            case "double": return "Double.compare(" + expected + ", " + actual + ") == 0";
+        }
+        if(type.isPrimitive())
+            return expected + " == " + actual;
+        if(type.isArray())
+            return type.componentType().isPrimitive()
+                    ? "java.util.Arrays.equals(" + expected + ", " + actual + ")"
+                    : "java.util.Arrays.deepEquals(" + expected + ", " + actual + ")";
+        return "java.util.Objects.equals(" + expected + ", " + actual + ")";
+    }
+
+    private static String string(TypeModel<?> type, String value) {
+        if(!type.isArray())
+            return value;
+        return type.componentType().isPrimitive() ? "java.util.Arrays.toString(" + value + ")" : "java.util.Arrays.deepToString(" + value + ")";
+    }
 
     public static class Factory implements DslAnnotationProcessorPluginFactory {
 
         @Override
-        public DslAnnotationProcessorPlugin createPlugin(ModelFactory factory) {
+        public DslAnnotationProcessorPlugin createPlugin(ModelFactory factory, KeywordIndex keywords) {
             return new CheckDslPlugin(factory);
         }
     }
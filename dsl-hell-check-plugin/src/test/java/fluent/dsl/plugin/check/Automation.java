@@ -8,7 +8,10 @@ import fluent.validation.Check;
 public interface Automation {
 
     @interface matches {}
+    @interface satisfies {}
 
     void verify(@When Order order, @matches Check<? super Order> criteria);
 
+    void verifyWith(@When Order order, @satisfies @Dsl Check<Order> criteria);
+
 }
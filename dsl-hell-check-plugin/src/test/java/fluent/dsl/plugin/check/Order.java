@@ -5,9 +5,12 @@ import java.util.List;
 public interface Order {
 
     int getIntValue();
+    long getLongValue();
+    double getDoubleValue();
     String getStringValue();
     Object[] getArrayValue();
     boolean isBooleanValue();
     List<String> getListValue();
+    String getDefault();
 
 }
@@ -0,0 +1,148 @@
+package fluent.dsl.plugin.check;
+
+import fluent.validation.Check;
+import fluent.validation.result.Result;
+import fluent.validation.result.ResultFactory;
+import org.testng.annotations.Test;
+
+import static java.util.Arrays.asList;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+public class OrderWithTest {
+
+    private Order order() {
+        Order order = mock(Order.class);
+        when(order.getIntValue()).thenReturn(5);
+        when(order.getLongValue()).thenReturn(50L);
+        when(order.getDoubleValue()).thenReturn(0.5);
+        when(order.getStringValue()).thenReturn("A");
+        when(order.getArrayValue()).thenReturn(new Object[] {"B", new int[] {1, 2}});
+        when(order.isBooleanValue()).thenReturn(true);
+        when(order.getListValue()).thenReturn(asList("C", "D"));
+        when(order.getDefault()).thenReturn("E");
+        return order;
+    }
+
+    @Test
+    public void testExactMatch() {
+        Check<Order> check = OrderWith.create().intValue(5).stringValue("A").arrayValue(new Object[] {"B", new int[] {1, 2}})
+                .booleanValue(true).listValue(asList("C", "D")).default_("E");
+        assertTrue(check.test(order()));
+    }
+
+    @Test
+    public void testOnlyExpectedGettersAreCalled() {
+        Order order = order();
+        assertTrue(OrderWith.create().stringValue("A").test(order));
+        verify(order).getStringValue();
+        verifyNoMoreInteractions(order);
+    }
+
+    @Test
+    public void testStopsOnFirstMismatch() {
+        Order order = order();
+        assertFalse(OrderWith.create().intValue(6).stringValue("A").test(order));
+        verify(order).getIntValue();
+        verifyNoMoreInteractions(order);
+    }
+
+    @Test
+    public void testObjectsEquals() {
+        Order order = order();
+        when(order.getStringValue()).thenReturn(null);
+        assertTrue(OrderWith.create().stringValue((String) null).test(order));
+        assertFalse(OrderWith.create().stringValue("A").test(order));
+        assertFalse(OrderWith.create().listValue(asList("C")).test(order()));
+    }
+
+    @Test
+    public void testArraysAreComparedDeeply() {
+        assertTrue(OrderWith.create().arrayValue(new Object[] {"B", new int[] {1, 2}}).test(order()));
+        assertFalse(OrderWith.create().arrayValue(new Object[] {"B", new int[] {1, 3}}).test(order()));
+    }
+
+    @Test
+    public void testMismatch() {
+        OrderWith check = OrderWith.create().intValue(6).stringValue("A").arrayValue(new Object[] {"B"}).default_("F");
+        assertEquals(check.mismatch(order()), "intValue: expected 6 but was 5\narrayValue: expected [B] but was [B, [1, 2]]\ndefault: expected F but was E\n");
+        assertNull(OrderWith.create().intValue(5).mismatch(order()));
+    }
+
+    @Test
+    public void testDescription() {
+        assertEquals(OrderWith.create().intValue(6).booleanValue(false).toString(), "Order with intValue 6 booleanValue false");
+    }
+
+    @Test
+    public void testCheckIsAcceptedByDsl() {
+        Automation automation = mock(Automation.class);
+        Order order = order();
+        OrderWith check = OrderWith.create().intValue(5);
+        AutomationDsl.create(automation).When(order).satisfies(check);
+        verify(automation).verifyWith(order, check);
+    }
+
+    @Test
+    public void testRangeBoundsAreInclusive() {
+        assertTrue(OrderWith.create().intValueBetween(5, 6).test(order()));
+        assertTrue(OrderWith.create().intValueBetween(4, 5).test(order()));
+        assertFalse(OrderWith.create().intValueBetween(6, 7).test(order()));
+        assertTrue(OrderWith.create().longValueBetween(50L, 50L).test(order()));
+        assertFalse(OrderWith.create().longValueBetween(40L, 49L).test(order()));
+        assertTrue(OrderWith.create().doubleValueBetween(0.5, 1.0).test(order()));
+        assertFalse(OrderWith.create().doubleValueBetween(0.6, 1.0).test(order()));
+    }
+
+    @Test
+    public void testTolerance() {
+        assertTrue(OrderWith.create().doubleValue(0.45, 0.05).test(order()));
+        assertTrue(OrderWith.create().doubleValue(0.5, 0.0).test(order()));
+        assertFalse(OrderWith.create().doubleValue(0.4, 0.05).test(order()));
+        assertFalse(OrderWith.create().doubleValue(0.51).test(order()));
+    }
+
+    @Test
+    public void testPrimitivePredicates() {
+        assertTrue(OrderWith.create().intValue(value -> value % 5 == 0).longValue(value -> value > 10).doubleValue(value -> value < 1).test(order()));
+        assertFalse(OrderWith.create().longValue(value -> value < 10).test(order()));
+    }
+
+    @Test
+    public void testNestedCheck() {
+        assertTrue(OrderWith.create().stringValue(new StringWith("A")).test(order()));
+        assertFalse(OrderWith.create().stringValue(new StringWith("B")).test(order()));
+        assertEquals(OrderWith.create().stringValue(new StringWith("B")).mismatch(order()), "stringValue: expected matching B but was A\n");
+    }
+
+    @Test
+    public void testBooleanGetter() {
+        assertTrue(OrderWith.create().booleanValue(true).test(order()));
+        assertFalse(OrderWith.create().booleanValue(false).test(order()));
+    }
+
+    @Test
+    public void testLatestExpectationOfGetterApplies() {
+        assertTrue(OrderWith.create().intValue(6).intValueBetween(1, 10).test(order()));
+        assertEquals(OrderWith.create().intValueBetween(6, 10).mismatch(order()), "intValue: expected between 6 and 10 but was 5\n");
+    }
+
+    private static final class StringWith extends Check<String> {
+        private final String expected;
+
+        private StringWith(String expected) {
+            this.expected = expected;
+        }
+
+        @Override
+        protected Result evaluate(String data, ResultFactory factory) {
+            return factory.predicateResult(this, data, expected.equals(data));
+        }
+
+        @Override
+        public String toString() {
+            return expected;
+        }
+    }
+
+}
@@ -0,0 +1,112 @@
+package fluent.dsl.daemon;
+
+import fluent.dsl.processor.DslGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Long running generator for local development. It keeps the JVM with javac, the processor and its plugins warm, watches
+ * the source roots and regenerates DSL on every change of Java sources. Only bindings, whose signatures or keywords
+ * changed, are regenerated, the rest is served from the generation cache, and only changed files are rewritten.
+ */
+public final class DslDaemon implements AutoCloseable {
+
+    private static final long QUIET_PERIOD_MILLIS = 50;
+
+    private final List<Path> roots;
+    private final DslGenerator generator;
+    private final WatchService watchService;
+
+    public DslDaemon(List<Path> roots, DslGenerator generator) throws IOException {
+        this.roots = roots;
+        this.generator = generator;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        for(Path root : roots)
+            register(root);
+    }
+
+    private void register(Path directory) throws IOException {
+        try(Stream<Path> directories = Files.walk(directory)) {
+            for(Path path : directories.filter(Files::isDirectory).collect(toList()))
+                path.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+        }
+    }
+
+    public DslGenerator.Result generate() throws IOException {
+        List<File> sources = new ArrayList<>();
+        for(Path root : roots)
+            sources.addAll(DslGenerator.sources(root));
+        return generator.generate(sources);
+    }
+
+    /**
+     * Blocks until Java sources in the roots change. Events are collected until there is no new one within quiet period,
+     * so saving of multiple files triggers single regeneration.
+     *
+     * @return true if any Java source (or directory) was created, modified or deleted.
+     */
+    public boolean awaitChange() throws IOException, InterruptedException {
+        boolean changed = false;
+        for(WatchKey key = watchService.take(); key != null; key = watchService.poll(QUIET_PERIOD_MILLIS, MILLISECONDS)) {
+            Path directory = (Path) key.watchable();
+            for(WatchEvent<?> event : key.pollEvents()) {
+                if(event.kind() == OVERFLOW) {
+                    changed = true;
+                    continue;
+                }
+                Path path = directory.resolve((Path) event.context());
+                if(event.kind() == ENTRY_CREATE && Files.isDirectory(path)) {
+                    register(path);
+                    changed = true;
+                } else if(path.toString().endsWith(".java")) {
+                    changed = true;
+                }
+            }
+            key.reset();
+        }
+        return changed;
+    }
+
+    public void run() throws IOException, InterruptedException {
+        report(System.nanoTime(), generate());
+        while(!Thread.currentThread().isInterrupted())
+            if(awaitChange())
+                report(System.nanoTime(), generate());
+    }
+
+    private static void report(long start, DslGenerator.Result result) {
+        System.out.println(result + " (" + NANOSECONDS.toMillis(System.nanoTime() - start) + " ms)");
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        generator.close();
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if(args.length < 4) {
+            System.err.println("Usage: java fluent.dsl.daemon.DslDaemon <output directory> <work directory> <classpath> <source root>...");
+            System.exit(1);
+        }
+        List<String> classpath = asList(args[2].split(File.pathSeparator));
+        List<Path> roots = Stream.of(args).skip(3).map(Paths::get).collect(toList());
+        DslGenerator generator = new DslGenerator(classpath, Paths.get(args[1]), Paths.get(args[0]), Charset.defaultCharset(), 1, null);
+        try(DslDaemon daemon = new DslDaemon(roots, generator)) {
+            daemon.run();
+        }
+    }
+
+}
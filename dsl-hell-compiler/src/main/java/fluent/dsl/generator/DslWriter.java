@@ -31,61 +31,78 @@ package fluent.dsl.generator;
 import fluent.api.model.*;
 
 import javax.lang.model.element.Modifier;
-import java.io.PrintWriter;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.function.Function;
 
-import static java.lang.String.format;
 import static java.util.Arrays.asList;
 import static java.util.Objects.isNull;
-import static java.util.stream.Collectors.joining;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PROTECTED;
 
 public class DslWriter {
 
-    private static final String tab = "\t";
+    private static final char tab = '\t';
+    private static final String newLine = System.lineSeparator();
     private static final Set<String> forbidden = new HashSet<>(asList("toString()", "hashCode()", "getClass()"));
 
-    private final PrintWriter source;
-    private final String prefix;
+    private final Appendable source;
+    private final List<String> indentation = new ArrayList<>(Collections.singletonList(""));
+    private int level;
 
-    private DslWriter(PrintWriter source, String prefix) {
+    private DslWriter(Appendable source) {
         this.source = source;
-        this.prefix = prefix;
     }
 
-    public static DslWriter dslWriter(PrintWriter printWriter) {
-        return new DslWriter(printWriter, "");
+    public static DslWriter dslWriter(Appendable source) {
+        return new DslWriter(source);
     }
 
-    private DslWriter indent() {
-        return new DslWriter(source, prefix + tab);
+    private DslWriter append(CharSequence text) {
+        try {
+            source.append(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
     }
 
-    private void println() {
-        source.println();
+    private DslWriter line() {
+        while(indentation.size() <= level)
+            indentation.add(indentation.get(indentation.size() - 1) + tab);
+        return append(indentation.get(level));
     }
 
-    private void println(String line) {
-        source.println(prefix + line);
+    private DslWriter line(String line) {
+        return line().append(line).newLine();
     }
 
-    private void print(String line) {
-        source.print(line);
+    private DslWriter newLine() {
+        return append(newLine);
     }
-    private void println(String template, String... args) {
-        println(format(template, (Object[]) args));
+
+    private <T> DslWriter join(Collection<T> items, String separator, Function<T, String> name) {
+        boolean first = true;
+        for(T item : items) {
+            if(!first)
+                append(separator);
+            append(name.apply(item));
+            first = false;
+        }
+        return this;
     }
 
     public void writeFile(TypeModel<?> model) {
-        println("package %s;", model.packageName());
-        println();
-        println("import javax.annotation.Generated;");
-        println("import fluent.api.Start;");
-        println("import fluent.api.End;");
-        println();
-        println("@Generated(\"Generated DSL class\")");
-        print("public ");
+        append("package ").append(model.packageName()).append(";").newLine();
+        newLine();
+        line("import javax.annotation.Generated;");
+        line("import fluent.api.Start;");
+        line("import fluent.api.End;");
+        newLine();
+        line("@Generated(\"Generated DSL class\")");
+        if(model instanceof InterfaceModel)
+            append("public ");
         writeType(model);
     }
 
@@ -97,12 +114,13 @@ public class DslWriter {
     }
 
     public void writeInterface(InterfaceModel model) {
-        println("interface %s%s {", model.simpleName(), interfaces("extends", model.interfaces()));
-        DslWriter indent = indent();
-        model.fields().values().forEach(indent::writeField);
-        model.methods().forEach(indent::writeInterfaceMethod);
-        model.types().forEach(indent::writeType);
-        println("}");
+        line().append("interface ").append(model.simpleName()).interfaces("extends", model.interfaces()).append(" {").newLine();
+        level++;
+        model.fields().values().forEach(this::writeField);
+        model.methods().forEach(this::writeInterfaceMethod);
+        model.types().forEach(this::writeType);
+        level--;
+        line("}");
     }
 
     private void writeInterfaceMethod(MethodModel model) {
@@ -114,41 +132,47 @@ public class DslWriter {
             writeSignature(model);
     }
 
-    private String interfaces(String keyword, List<InterfaceModel> interfaces) {
-        return interfaces.isEmpty() ? "" : interfaces.stream().map(TypeModel::fullName).collect(joining(", ", " " + keyword + " ", ""));
+    private DslWriter interfaces(String keyword, List<InterfaceModel> interfaces) {
+        return interfaces.isEmpty() ? this : append(" ").append(keyword).append(" ").join(interfaces, ", ", TypeModel::fullName);
     }
 
-    public String extend(ClassModel superClass) {
-        return isNull(superClass) ? "" : " extends " + superClass.fullName();
+    private DslWriter extend(ClassModel superClass) {
+        return isNull(superClass) ? this : append(" extends ").append(superClass.fullName());
     }
 
     public void writeField(VarModel model) {
-        println("%s%s %s%s;", modifiers(model), model.type().fullName(), model.name(), isNull(model.initializer())? "" : " = " + model.initializer());
+        line().modifiers(model).append(model.type().fullName()).append(" ").append(model.name());
+        if(!isNull(model.initializer()))
+            append(" = ").append(model.initializer());
+        append(";").newLine();
     }
 
-    private String modifiers(ElementModel model) {
-        return model.modifiers().keywords().isEmpty() ? "" : model.modifiers().keywords().stream().map(Modifier::toString).collect(joining(" ")) + " ";
+    private DslWriter modifiers(ElementModel model) {
+        return model.modifiers().keywords().isEmpty() ? this : join(model.modifiers().keywords(), " ", Modifier::toString).append(" ");
     }
 
     public void writeClass(ClassModel model) {
-        println("public class %s%s%s {", model.simpleName(), extend(model.superClass()), interfaces("implements", model.interfaces()));
-        DslWriter indent = indent();
-        model.fields().values().forEach(indent::writeField);
-        model.methods().forEach(indent::writeClassMethod);
-        model.types().forEach(indent::writeType);
-        println("}");
+        line().append(model.modifiers().isFinal() ? "public final class " : "public class ").append(model.simpleName()).extend(model.superClass()).interfaces("implements", model.interfaces()).append(" {").newLine();
+        level++;
+        model.fields().values().forEach(this::writeField);
+        model.methods().forEach(this::writeClassMethod);
+        model.types().forEach(this::writeType);
+        level--;
+        line("}");
     }
 
-    private String typeParameters(GenericModel<?> model) {
-        return model.typeParameters().isEmpty() ? "" : model.typeParameters().stream().map(TypeModel::simpleName).collect(joining(", ", "<", "> "));
+    private DslWriter typeParameters(GenericModel<?> model) {
+        return model.typeParameters().isEmpty() ? this : append("<").join(model.typeParameters(), ", ", TypeModel::simpleName).append("> ");
     }
 
-    private String annotations(ElementModel model) {
-        return model.annotations().stream().map(a -> "@" + a.type().simpleName()).collect(joining());
+    private DslWriter annotations(ElementModel model) {
+        for(AnnotationModel annotation : model.annotations())
+            append("@").append(annotation.type().simpleName());
+        return this;
     }
 
     public void writeSignature(MethodModel model) {
-        println("%s%s %s(%s);", typeParameters(model), model.returnType().fullName(), model.name(), parameters(model));
+        line().typeParameters(model).append(model.returnType().fullName()).append(" ").append(model.name()).append("(").parameters(model).append(");").newLine();
     }
 
     public void writeClassMethod(MethodModel model) {
@@ -161,23 +185,48 @@ public class DslWriter {
     }
 
     public void writeMethod(MethodModel model) {
-        println("public %s%s %s(%s) {", typeParameters(model), model.returnType().fullName(), model.name(), parameters(model));
-        model.body().forEach(indent()::writeStatement);
-        println("}");
+        if(model.metadata().containsKey("suppressWarnings"))
+            line().append("@SuppressWarnings(\"").append(model.metadata().get("suppressWarnings").toString()).append("\")").newLine();
+        line().append(visibility(model)).typeParameters(model).append(model.returnType().fullName()).append(" ").append(model.name()).append("(").parameters(model).append(") {").newLine();
+        writeBody(model);
+        line("}");
+    }
+
+    private static String visibility(MethodModel model) {
+        Set<Modifier> modifiers = model.modifiers().keywords();
+        return modifiers.contains(PRIVATE) ? "private " : modifiers.contains(PROTECTED) ? "protected " : "public ";
+    }
+
+    private void writeBody(MethodModel model) {
+        level++;
+        model.body().forEach(this::writeStatement);
+        level--;
     }
 
     private void writeStatement(StatementModel statementModel) {
-        println(statementModel.toString());
+        line(statementModel.toString());
     }
 
-    private String parameters(MethodModel model) {
-        return model.parameters().stream().map(p -> p.type().fullName() + " " + p.name()).collect(joining(", "));
+    private DslWriter parameters(MethodModel model) {
+        List<VarModel> parameters = model.parameters();
+        boolean varargs = Boolean.TRUE.equals(model.metadata().get("varargs"));
+        for(int i = 0; i < parameters.size(); i++) {
+            VarModel parameter = parameters.get(i);
+            if(i > 0)
+                append(", ");
+            if(varargs && i == parameters.size() - 1)
+                append(parameter.type().componentType().fullName()).append("...");
+            else
+                append(parameter.type().fullName());
+            append(" ").append(parameter.name());
+        }
+        return this;
     }
 
     public void writeConstructor(ConstructorModel model) {
-        println("%s %s(%s) {", modifiers(model), model.returnType().rawType().simpleName(), parameters(model));
-        model.body().forEach(indent()::writeStatement);
-        println("}");
+        line().modifiers(model).append(" ").append(model.returnType().rawType().simpleName()).append("(").parameters(model).append(") {").newLine();
+        writeBody(model);
+        line("}");
     }
 
     public void writeStaticMethod(StaticMethodModel model) {
@@ -185,9 +234,13 @@ public class DslWriter {
     }
 
     public void writeAnonymousClass(InterfaceModel model) {
-        println("return new %s() {", model.fullName());
-        model.methods().stream().filter(m -> !(m instanceof StaticMethodModel) && !(m instanceof DefaultMethodModel)).forEach(indent()::writeAnonymousImplementation);
-        println("};");
+        line().append("return new ").append(model.fullName()).append("() {").newLine();
+        level++;
+        for(MethodModel method : model.methods())
+            if(!(method instanceof StaticMethodModel) && !(method instanceof DefaultMethodModel))
+                writeAnonymousImplementation(method);
+        level--;
+        line("};");
     }
 
     public void writeAnonymousImplementation(MethodModel model) {
@@ -200,11 +253,14 @@ public class DslWriter {
     }
 
     private void writeMethod(String prefix, MethodModel model) {
-        println("%s %s%s%s %s(%s) {", prefix, annotations(model), typeParameters(model), model.returnType().fullName(), model.name(), parameters(model));
-        if(model.body().isEmpty() && model.returnType() instanceof InterfaceModel)
-            indent().writeAnonymousClass((InterfaceModel) model.returnType());
-        model.body().forEach(indent()::writeStatement);
-        println("}");
+        line().append(prefix).append(" ").annotations(model).typeParameters(model).append(model.returnType().fullName()).append(" ").append(model.name()).append("(").parameters(model).append(") {").newLine();
+        if(model.body().isEmpty() && model.returnType() instanceof InterfaceModel) {
+            level++;
+            writeAnonymousClass((InterfaceModel) model.returnType());
+            level--;
+        }
+        writeBody(model);
+        line("}");
     }
 
 }
@@ -32,6 +32,7 @@ import fluent.api.model.*;
 import fluent.dsl.Dsl;
 import fluent.dsl.processor.DslAnnotationProcessorPlugin;
 import fluent.dsl.processor.DslAnnotationProcessorPluginFactory;
+import fluent.dsl.processor.KeywordIndex;
 
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ExecutableElement;
@@ -40,6 +41,7 @@ import javax.lang.model.type.DeclaredType;
 import java.util.List;
 import java.util.function.Function;
 
+import static fluent.dsl.Dsl.Implementation.ANONYMOUS_CLASSES;
 import static fluent.dsl.plugin.DslUtils.*;
 import static fluent.dsl.plugin.InitialState.start;
 import static java.util.function.Function.identity;
@@ -89,8 +91,8 @@ public class BuilderParser implements DslAnnotationProcessorPlugin {
             });
             builderImpl.methods().add(constructor);
 
-            readConstructors(typeElement, start(factory, dslModel, PUBLIC, STATIC), c -> builderConstructor(c, builderImpl), builderModel);
-            State state = start(factory, builderModel, PUBLIC);
+            readConstructors(typeElement, start(factory, dslModel, dsl.useVarargs(), PUBLIC, STATIC), c -> builderConstructor(c, builderImpl), builderModel);
+            State state = start(factory, builderModel, dsl.useVarargs(), PUBLIC);
             VarModel thisModel = factory.parameter(builderImpl, "this");
             for (ExecutableElement method : methodsIn(typeElement.getEnclosedElements()))
                 if(isSetter(method))
@@ -104,8 +106,10 @@ public class BuilderParser implements DslAnnotationProcessorPlugin {
             builderModel.methods().add(buildMethod);
             builderImpl.methods().addAll(builderModel.methods());
         } else if(constructors.size() == 1 && constructors.get(0).getParameters().size() > 0) {
-            readConstructors(typeElement, start(factory, dslModel, PUBLIC, STATIC), identity(), model);
+            readConstructors(typeElement, start(factory, dslModel, dsl.useVarargs(), PUBLIC, STATIC), identity(), model);
         }
+        if(dsl.implementation() != ANONYMOUS_CLASSES)
+            new StepClasses(factory).implementEntries(dslModel);
         return dslModel;
     }
 
@@ -131,7 +135,7 @@ public class BuilderParser implements DslAnnotationProcessorPlugin {
     public static final class Factory implements DslAnnotationProcessorPluginFactory {
 
         @Override
-        public DslAnnotationProcessorPlugin createPlugin(ModelFactory factory) {
+        public DslAnnotationProcessorPlugin createPlugin(ModelFactory factory, KeywordIndex keywords) {
             return new BuilderParser(factory);
         }
     }
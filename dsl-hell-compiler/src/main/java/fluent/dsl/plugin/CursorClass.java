@@ -0,0 +1,217 @@
+package fluent.dsl.plugin;
+
+import fluent.api.model.*;
+
+import java.util.*;
+
+import static fluent.dsl.plugin.DslUtils.statement;
+import static fluent.dsl.plugin.DslUtils.varargs;
+import static fluent.dsl.plugin.StepClasses.concat;
+import static fluent.dsl.plugin.StepClasses.isStep;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.type.TypeKind.INT;
+
+public class CursorClass {
+
+    private static final String CURSOR = "$cursor";
+    private static final String STATE = "$state";
+    private static final String STALE = "throw new IllegalStateException(\"Sentence continued after another sentence was started on the same thread.\");";
+
+    private final ModelFactory factory;
+    private final Map<TypeModel<?>, Integer> states = new LinkedHashMap<>();
+    private final Map<TypeModel<?>, String> paths = new HashMap<>();
+    private final Map<TypeModel<?>, List<VarModel>> collected = new HashMap<>();
+    private final Map<String, List<Branch>> groups = new LinkedHashMap<>();
+    private final Map<String, VarModel> fields = new LinkedHashMap<>();
+    private final Set<String> fieldNames = new HashSet<>(singletonList(STATE));
+
+    public CursorClass(ModelFactory factory) {
+        this.factory = factory;
+    }
+
+    public MethodModel implement(InterfaceModel root, List<VarModel> rootFields) {
+        rootFields.forEach(field -> fieldNames.add(field.name()));
+        if(!collect(root, "", emptyList(), root.typeParameters().size()) || !groups.values().stream().allMatch(CursorClass::compatible))
+            return null;
+        String rootName = root.rawType().simpleName();
+        ClassModel cursor = factory.classModel(rootName, "Cursor").typeParameters(root.typeParameters());
+        cursor.modifiers().keywords().add(FINAL);
+        states.keySet().forEach(state -> cursor.interfaces().add(factory.interfaceModel(paths.get(state), state.rawType().simpleName()).typeParameters(state.typeParameters())));
+        rootFields.forEach(field -> cursor.fields().put(field.name(), finalField(field)));
+        cursor.fields().put(STATE, factory.parameter(factory.primitive(INT), STATE));
+        fields.values().forEach(field -> cursor.fields().put(field.name(), field));
+        cursor.methods().add(constructor(cursor, rootFields));
+        groups.values().forEach(group -> cursor.methods().add(method(cursor, group)));
+        root.types().add(cursor);
+
+        ClassModel impl = factory.classModel(rootName, "Impl").typeParameters(root.typeParameters());
+        impl.modifiers().keywords().add(FINAL);
+        impl.interfaces().add(root);
+        rootFields.forEach(field -> impl.fields().put(field.name(), finalField(field)));
+        VarModel threadLocal = finalField(factory.parameter(factory.classModel("java.lang", "ThreadLocal").typeParameters(singletonList(cursor)), CURSOR));
+        impl.fields().put(CURSOR, threadLocal);
+        MethodModel constructor = constructor(impl, rootFields);
+        constructor.body().add(statement("this." + CURSOR + " = ThreadLocal.withInitial(() -> new " + cursor.fullName() + "(" + names(rootFields) + "));"));
+        impl.methods().add(constructor);
+        for(MethodModel method : root.methods())
+            if(!(method instanceof DefaultMethodModel) && !(method instanceof StaticMethodModel))
+                impl.methods().add(entry(cursor, method));
+        root.types().add(impl);
+        return constructor;
+    }
+
+    private boolean collect(TypeModel<?> type, String path, List<VarModel> variables, int typeParameters) {
+        for(MethodModel method : type.methods()) {
+            if(method instanceof DefaultMethodModel || method instanceof StaticMethodModel)
+                continue;
+            if(!method.typeParameters().isEmpty())
+                return false;
+            if(states.containsKey(type))
+                for(String name : names(method))
+                    groups.computeIfAbsent(name + "(" + erasure(method) + ")", key -> new ArrayList<>()).add(new Branch(type, method, name));
+            if(isStep(method)) {
+                TypeModel<?> next = method.returnType();
+                if(next.typeParameters().size() != typeParameters)
+                    return false;
+                method.parameters().forEach(this::field);
+                states.put(next, states.size() + 1);
+                paths.put(next, path);
+                collected.put(next, concat(variables, method.parameters()));
+                String nextPath = path.isEmpty() ? next.rawType().simpleName() : path + "." + next.rawType().simpleName();
+                if(!collect(next, nextPath, collected.get(next), typeParameters))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean compatible(List<Branch> group) {
+        MethodModel first = group.get(0).method;
+        return group.stream().map(branch -> branch.method).allMatch(method ->
+                signature(method).equals(signature(first)) && isStep(method) == isStep(first) && (isStep(first) || method.returnType().fullName().equals(first.returnType().fullName()))
+        );
+    }
+
+    private MethodModel constructor(ClassModel type, List<VarModel> rootFields) {
+        MethodModel constructor = factory.constructor(type, rootFields.toArray(new VarModel[0]));
+        rootFields.forEach(field -> constructor.body().add(statement("this." + field.name() + " = " + field.name() + ";")));
+        return constructor;
+    }
+
+    private MethodModel entry(ClassModel cursor, MethodModel method) {
+        MethodModel entry = varargs(factory.method(method.name(), method.parameters()).returnType(method.returnType()), method);
+        if(isStep(method)) {
+            entry.body().add(statement(cursor.fullName() + " " + CURSOR + " = this." + CURSOR + ".get();"));
+            method.parameters().forEach(parameter -> entry.body().add(statement(CURSOR + "." + field(parameter).name() + " = " + parameter.name() + ";")));
+            entry.body().add(statement(CURSOR + "." + STATE + " = " + states.get(method.returnType()) + ";"));
+            entry.body().add(statement("return " + CURSOR + ";"));
+        } else {
+            entry.body().addAll(method.body());
+        }
+        return entry;
+    }
+
+    private MethodModel method(ClassModel cursor, List<Branch> group) {
+        Branch first = group.get(0);
+        if(group.size() == 1) {
+            MethodModel method = varargs(factory.method(first.name, first.method.parameters()).returnType(isStep(first.method) ? cursor : first.method.returnType()), first.method);
+            method.body().add(statement("if(" + STATE + " != " + states.get(first.state) + ")"));
+            method.body().add(statement("\t" + STALE));
+            branch(method, first, "", false);
+            return method;
+        }
+        List<VarModel> parameters = new ArrayList<>();
+        for(VarModel parameter : first.method.parameters())
+            parameters.add(factory.parameter(parameter.type(), "$" + parameters.size()));
+        MethodModel method = varargs(factory.method(first.name, parameters).returnType(isStep(first.method) ? cursor : first.method.returnType()), first.method);
+        method.body().add(statement("switch(" + STATE + ") {"));
+        for(Branch branch : group) {
+            method.body().add(statement("\tcase " + states.get(branch.state) + ": {"));
+            for(int i = 0; i < parameters.size(); i++) {
+                VarModel parameter = branch.method.parameters().get(i);
+                method.body().add(statement("\t\t" + parameter.type().fullName() + " " + parameter.name() + " = " + parameters.get(i).name() + ";"));
+            }
+            branch(method, branch, "\t\t", true);
+            method.body().add(statement("\t}"));
+        }
+        method.body().add(statement("\tdefault:"));
+        method.body().add(statement("\t\t" + STALE));
+        method.body().add(statement("}"));
+        return method;
+    }
+
+    private void branch(MethodModel method, Branch branch, String indent, boolean mustReturn) {
+        if(isStep(branch.method)) {
+            branch.method.parameters().forEach(parameter -> method.body().add(statement(indent + "this." + field(parameter).name() + " = " + parameter.name() + ";")));
+            method.body().add(statement(indent + STATE + " = " + states.get(branch.method.returnType()) + ";"));
+            method.body().add(statement(indent + "return this;"));
+        } else {
+            for(VarModel variable : collected.get(branch.state))
+                method.body().add(statement(indent + variable.type().fullName() + " " + variable.name() + " = this." + field(variable).name() + ";"));
+            // Cursor is reset before the bound call, so it doesn't keep the arguments reachable, and the call may start
+            // another sentence on the same thread.
+            for(VarModel field : fields.values())
+                if(!field.type().isPrimitive())
+                    method.body().add(statement(indent + "this." + field.name() + " = null;"));
+            method.body().add(statement(indent + STATE + " = 0;"));
+            branch.method.body().forEach(statement -> method.body().add(statement(indent + statement)));
+            if(mustReturn && !branch.method.returnsValue())
+                method.body().add(statement(indent + "return;"));
+        }
+    }
+
+    private VarModel field(VarModel variable) {
+        return fields.computeIfAbsent(variable.name() + " " + variable.type().fullName(), key -> {
+            String name = variable.name();
+            for(int i = 1; fieldNames.contains(name); i++)
+                name = variable.name() + "$" + i;
+            fieldNames.add(name);
+            return factory.parameter(variable.type(), name);
+        });
+    }
+
+    private VarModel finalField(VarModel variable) {
+        VarModel field = factory.parameter(variable.type(), variable.name());
+        field.modifiers().keywords().addAll(asList(PRIVATE, FINAL));
+        return field;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Collection<String> names(MethodModel method) {
+        List<String> names = new ArrayList<>(singletonList(method.name()));
+        names.addAll((Set<String>) method.metadata().getOrDefault("aliases", emptySet()));
+        return names;
+    }
+
+    private static String names(List<VarModel> variables) {
+        return variables.stream().map(VarModel::name).collect(joining(", "));
+    }
+
+    private static String erasure(MethodModel method) {
+        return method.parameters().stream().map(parameter -> parameter.type().rawType().fullName()).collect(joining(", "));
+    }
+
+    private static List<String> signature(MethodModel method) {
+        return method.parameters().stream().map(parameter -> parameter.type().fullName()).collect(toList());
+    }
+
+    private static final class Branch {
+        private final TypeModel<?> state;
+        private final MethodModel method;
+        private final String name;
+
+        private Branch(TypeModel<?> state, MethodModel method, String name) {
+            this.state = state;
+            this.method = method;
+            this.name = name;
+        }
+    }
+
+}
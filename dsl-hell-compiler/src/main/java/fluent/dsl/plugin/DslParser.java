@@ -29,36 +29,57 @@
 package fluent.dsl.plugin;
 
 import fluent.api.model.*;
-import fluent.dsl.Constant;
 import fluent.dsl.Dsl;
 import fluent.dsl.processor.DslAnnotationProcessorPlugin;
 import fluent.dsl.processor.DslAnnotationProcessorPluginFactory;
+import fluent.dsl.processor.KeywordIndex;
 
 import javax.lang.model.element.*;
-import java.util.LinkedHashSet;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
+import static fluent.dsl.Dsl.Implementation.ANONYMOUS_CLASSES;
+import static fluent.dsl.Dsl.Implementation.CURSOR;
+import static fluent.dsl.Dsl.Implementation.STEP_CLASSES;
 import static fluent.dsl.plugin.DslUtils.*;
 import static fluent.dsl.plugin.InitialState.start;
+import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
-import static java.util.stream.Collectors.toCollection;
 import static javax.lang.model.element.ElementKind.*;
-import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.*;
 import static javax.lang.model.util.ElementFilter.methodsIn;
 
 public class DslParser implements DslAnnotationProcessorPlugin {
 
+    private static final String EXECUTOR = "executor";
+
     private final ModelFactory factory;
+    private final KeywordIndex keywords;
+    private final boolean async;
+
+    public DslParser(ModelFactory factory, KeywordIndex keywords) {
+        this(factory, keywords, false);
+    }
 
-    public DslParser(ModelFactory factory) {
+    /**
+     * @param factory Model factory.
+     * @param keywords Index of keywords of current processing round.
+     * @param async Flag indicating, that this parser generates the async companion DSL, which completes sentences
+     *              by submitting the bound method call to an executor, and returns CompletableFuture of it's result.
+     */
+    public DslParser(ModelFactory factory, KeywordIndex keywords, boolean async) {
         this.factory = factory;
+        this.keywords = keywords;
+        this.async = async;
     }
 
     @Override
     public boolean isFor(Element element) {
-        return element.getKind() == CLASS || element.getKind() == INTERFACE;
+        return (element.getKind() == CLASS || element.getKind() == INTERFACE) && (!async || element.getAnnotation(Dsl.class).async());
     }
 
     @Override
@@ -67,49 +88,83 @@ public class DslParser implements DslAnnotationProcessorPlugin {
         boolean hasOnlyStaticMethods = methodsIn(element.getEnclosedElements()).stream().allMatch(method -> method.getModifiers().contains(Modifier.STATIC));
 
         String packageName = override(dsl.packageName(), model.packageName());
-        String dslName = override(dsl.className(), model.rawType().simpleName() + "Dsl");
+        String dslName = dsl.className().isEmpty() ? model.rawType().simpleName() + (async ? "AsyncDsl" : "Dsl") : dsl.className() + (async ? "Async" : "");
 
         VarModel source = factory.parameter(model, dsl.parameterName());
+        List<VarModel> factoryParameters = new ArrayList<>(hasOnlyStaticMethods ? emptyList() : singletonList(source));
+        if(async)
+            factoryParameters.add(factory.parameter(factory.classModel("java.util.concurrent", "Executor"), EXECUTOR));
         InterfaceModel dslType = factory.interfaceModel(packageName, dslName).typeParameters(model.typeParameters());
 
-        parseMethods(element, start(factory, dslType, PUBLIC), source);
+        Instrumentation instrumentation = !async && (dsl.metrics() || dsl.jfrEvents()) ? new Instrumentation(factory, dslType, dsl.metrics(), dsl.jfrEvents()) : null;
+        parseMethods(element, start(factory, dslType, dsl.useVarargs(), PUBLIC), source, instrumentation);
+        // Stateless DSL of static methods doesn't need anonymous classes capturing outer instances.
+        // Async sentences are completed later on the executor, so they can't share the mutable cursor.
+        Dsl.Implementation implementation = hasOnlyStaticMethods && dsl.implementation() == ANONYMOUS_CLASSES || async && dsl.implementation() == CURSOR ? STEP_CLASSES : dsl.implementation();
+        if(dsl.mergeSteps() && implementation == ANONYMOUS_CLASSES)
+            new Minimization(factory).minimize(dslType);
         InterfaceModel delegate = factory.interfaceModel("", "Delegate").typeParameters(model.typeParameters());
         delegate.interfaces().add(dslType);
         dslType.methods().forEach(m -> {
-            MethodModel model1 = factory.defaultMethod(m.name(), m.parameters()).returnType(m.returnType()).typeParameters(m.typeParameters());
+            MethodModel model1 = varargs(factory.defaultMethod(m.name(), m.parameters()).returnType(m.returnType()).typeParameters(m.typeParameters()), m);
             model1.body().add(factory.statementModel(factory.parameter(dslType, dsl.delegateMethod() + "()"), m));
             delegate.methods().add(model1);
         });
-        MethodModel factoryMethod = factory.staticMethod(dsl.factoryMethod(), hasOnlyStaticMethods ? emptyList() : singletonList(source)).typeParameters(model.typeParameters()).returnType(dslType).owner(dslType);
-        if(hasOnlyStaticMethods) {
+        MethodModel factoryMethod = factory.staticMethod(dsl.factoryMethod(), factoryParameters).typeParameters(model.typeParameters()).returnType(dslType).owner(dslType);
+        if(implementation != ANONYMOUS_CLASSES)
+            factoryMethod.body().add(factory.statementModel(null, implementation(implementation, dslType, factoryMethod.parameters())));
+        if(hasOnlyStaticMethods && !async) {
             MethodModel delegateMethod = factory.defaultMethod(dsl.delegateMethod(), emptyList()).returnType(dslType);
             delegateMethod.body().add(factory.statementModel(null, factoryMethod));
             delegate.methods().add(delegateMethod);
             ClassModel staticEntryModel = factory.classModel("", "Static");
+            VarModel root = model.typeParameters().isEmpty() ? instance(staticEntryModel, dslType, factoryMethod) : factory.parameter(dslType, factoryMethod.toString());
             dslType.methods().forEach(m -> {
-                MethodModel entry = factory.staticMethod(m.name(), m.parameters()).returnType(m.returnType()).typeParameters(m.typeParameters());
-                entry.body().add(factory.statementModel(factory.parameter(dslType, factoryMethod.toString()), m));
+                MethodModel entry = varargs(factory.staticMethod(m.name(), m.parameters()).returnType(m.returnType()).typeParameters(m.typeParameters()), m);
+                entry.body().add(factory.statementModel(root, m));
                 staticEntryModel.methods().add(entry);
             });
             dslType.types().add(staticEntryModel);
         } else {
             delegate.methods().add(factory.method(dsl.delegateMethod()).returnType(dslType));
         }
+        if(dsl.recording() && !async)
+            dslType.types().add(recording(element, model, dslType));
+        if(nonNull(instrumentation))
+            instrumentation.complete();
         dslType.methods().add(factoryMethod);
         dslType.types().add(delegate);
         return dslType;
     }
 
+    private ClassModel recording(Element element, TypeModel<?> model, InterfaceModel dslType) {
+        if(element.getKind() != INTERFACE || !((TypeElement) element).getInterfaces().isEmpty())
+            throw new IllegalArgumentException("Recording can be generated only for interface without super interfaces: " + element);
+        return new Recording(factory).implement(dslType, (InterfaceModel) model);
+    }
+
 
 
-    private void parseMethods(Element element, State state, VarModel impl) {
+    private VarModel instance(ClassModel staticEntryModel, InterfaceModel dslType, MethodModel factoryMethod) {
+        VarModel instance = factory.parameter(dslType, "INSTANCE").initializer(factoryMethod.toString());
+        instance.modifiers().keywords().addAll(asList(PRIVATE, STATIC, FINAL));
+        staticEntryModel.fields().put(instance.name(), instance);
+        return instance;
+    }
+
+    private MethodModel implementation(Dsl.Implementation implementation, InterfaceModel dslType, List<VarModel> fields) {
+        MethodModel constructor = implementation == CURSOR ? new CursorClass(factory).implement(dslType, fields) : null;
+        return isNull(constructor) ? new StepClasses(factory).implement(dslType, fields) : constructor;
+    }
+
+    private void parseMethods(Element element, State state, VarModel impl, Instrumentation instrumentation) {
         for(AnnotationMirror annotation : element.getAnnotationMirrors())
             state = annotation(state, annotation);
         for(ExecutableElement method : methodsIn(element.getEnclosedElements()))
-            parseParameters(method, state.method(from(method)), impl);
+            parseParameters(method, state.method(from(method)), impl, instrumentation);
     }
 
-    private void parseParameters(ExecutableElement method, State state, VarModel impl) {
+    private void parseParameters(ExecutableElement method, State state, VarModel impl, Instrumentation instrumentation) {
         for (VariableElement parameter : method.getParameters()) {
             for(AnnotationMirror annotation : parameter.getAnnotationMirrors())
                 state = annotation(state, annotation);
@@ -118,27 +173,54 @@ public class DslParser implements DslAnnotationProcessorPlugin {
         for(AnnotationMirror annotation : method.getAnnotationMirrors())
             state = annotation(state, annotation);
         MethodModel methodModel = factory.method(method);
-        state.body(methodModel.returnType(), factory.statementModel(impl, methodModel));
+        if(async)
+            state.body(future(methodModel.returnType()), submit(factory.statementModel(impl, methodModel), methodModel));
+        else if(nonNull(instrumentation))
+            state.body(methodModel.returnType(), instrumentation.wrap(factory.statementModel(impl, methodModel), methodModel));
+        else
+            state.body(methodModel.returnType(), factory.statementModel(impl, methodModel));
+    }
+
+    private TypeModel<?> future(TypeModel<?> type) {
+        TypeModel<?> boxed = type.isPrimitive() || "void".equals(type.fullName()) ? factory.classModel("java.lang", boxed(type.fullName())) : type;
+        return factory.classModel("java.util.concurrent", "CompletableFuture").typeParameters(singletonList(boxed));
+    }
+
+    private static String boxed(String primitive) {
+        switch (primitive) {
+            case "int": return "Integer";
+            case "char": return "Character";
+            default: return capitalize(primitive);
+        }
+    }
+
+    private StatementModel submit(StatementModel call, MethodModel method) {
+        String submit = method.returnsValue() ? "supplyAsync" : "runAsync";
+        return statement("return java.util.concurrent.CompletableFuture." + submit + "(() -> { " + call + " }, " + EXECUTOR + ");");
     }
 
     public State annotation(State state, AnnotationMirror annotation) {
-        Element element = annotation.getAnnotationType().asElement();
-        if(nonNull(element.getAnnotation(Constant.class)))
-            return state.constant(factory.constant(from(element)));
-        if(nonNull(getDsl(element)))
-            return state.keyword(from(element), aliases(element));
+        KeywordIndex.Keyword keyword = keywords.keyword(annotation.getAnnotationType().asElement());
+        if(keyword.isConstant())
+            return state.constant(factory.constant(keyword.name()));
+        if(keyword.isKeyword())
+            return state.keyword(keyword.name(), keyword.aliases());
         return state;
     }
 
-    private Set<String> aliases(Element element) {
-        return element.getEnclosedElements().stream().filter(e -> e.getKind() == ANNOTATION_TYPE).map(DslUtils::from).collect(toCollection(LinkedHashSet::new));
+    public static final class Factory implements DslAnnotationProcessorPluginFactory {
+
+        @Override
+        public DslAnnotationProcessorPlugin createPlugin(ModelFactory factory, KeywordIndex keywords) {
+            return new DslParser(factory, keywords);
+        }
     }
 
-    public static final class Factory implements DslAnnotationProcessorPluginFactory {
+    public static final class AsyncFactory implements DslAnnotationProcessorPluginFactory {
 
         @Override
-        public DslAnnotationProcessorPlugin createPlugin(ModelFactory factory) {
-            return new DslParser(factory);
+        public DslAnnotationProcessorPlugin createPlugin(ModelFactory factory, KeywordIndex keywords) {
+            return new DslParser(factory, keywords, true);
         }
     }
 }
@@ -29,16 +29,18 @@
 package fluent.dsl.plugin;
 
 import fluent.api.model.GenericModel;
+import fluent.api.model.MethodModel;
+import fluent.api.model.StatementModel;
 import fluent.api.model.TypeModel;
 import fluent.api.model.VarModel;
 import fluent.dsl.Dsl;
+import fluent.dsl.processor.KeywordIndex;
 
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ExecutableElement;
 import java.util.ArrayList;
 import java.util.List;
 
-import static java.util.Objects.nonNull;
 import static java.util.stream.Collectors.joining;
 import static javax.lang.model.element.Modifier.STATIC;
 
@@ -86,25 +88,35 @@ public final class DslUtils {
         return !method.getModifiers().contains(STATIC) && method.getSimpleName().toString().startsWith("get") && method.getParameters().size() == 0;
     }
 
+    /**
+     * @deprecated Use {@link KeywordIndex#dsl(Element)} of the index passed to plugin factory, which also finds
+     * {@link Dsl} on parent packages, and resolves every package only once per round.
+     */
+    @Deprecated
     public static Dsl getDsl(Element element) {
-        Dsl dsl = element.getAnnotation(Dsl.class);
-        if(nonNull(dsl))
-            return dsl;
-        Element enclosingElement = element.getEnclosingElement();
-        if(nonNull(enclosingElement))
-            return getDsl(enclosingElement);
-        try {
-            Element packageElement = (Element) element.getClass().getField("owner").get(element);
-            if(nonNull(packageElement))
-                return getDsl(packageElement);
-        } catch (IllegalAccessException | NoSuchFieldException e) {
-            e.printStackTrace();
-        }
-        return null;
+        return new KeywordIndex(null).dsl(element);
     }
 
     public static String from(Element element) {
         return element.getSimpleName().toString();
     }
 
+    public static boolean isVarargs(MethodModel method) {
+        return Boolean.TRUE.equals(method.metadata().get("varargs"));
+    }
+
+    public static MethodModel varargs(MethodModel method, MethodModel source) {
+        if(isVarargs(source))
+            method.metadata().put("varargs", true);
+        return method;
+    }
+
+    public static StatementModel statement(String code) {
+        return new StatementModel() {
+            @Override public String toString() {
+                return code;
+            }
+        };
+    }
+
 }
@@ -7,6 +7,7 @@ import java.util.*;
 
 import static fluent.dsl.plugin.DslUtils.capitalize;
 import static fluent.dsl.plugin.DslUtils.usedTypeParameters;
+import static fluent.dsl.plugin.DslUtils.varargs;
 import static java.util.Arrays.asList;
 import static java.util.Objects.isNull;
 import static java.util.function.Function.identity;
@@ -18,15 +19,18 @@ import static javax.lang.model.element.Modifier.PUBLIC;
 public class InitialState implements State {
     private final ModelFactory factory;
     private final TypeModel<?> rootTypeModel;
+    private final boolean useVarargs;
     private final Modifier[] initialModifiers;
+    private final Map<TypeModel<?>, Map<String, MethodModel>> methodSignatures = new IdentityHashMap<>();
 
-    private InitialState(ModelFactory factory, TypeModel rootTypeModel, Modifier[] initialModifiers) {
+    private InitialState(ModelFactory factory, TypeModel rootTypeModel, boolean useVarargs, Modifier[] initialModifiers) {
         this.factory = factory;
         this.rootTypeModel = rootTypeModel;
+        this.useVarargs = useVarargs;
         this.initialModifiers = initialModifiers;
     }
-    public static State start(ModelFactory factory, TypeModel rootTypeModel, Modifier... modifiers) {
-        return new InitialState(factory, rootTypeModel, modifiers);
+    public static State start(ModelFactory factory, TypeModel rootTypeModel, boolean useVarargs, Modifier... modifiers) {
+        return new InitialState(factory, rootTypeModel, useVarargs, modifiers);
     }
     @Override public State method(String name) {
         return new MethodState(rootTypeModel, name);
@@ -46,6 +50,10 @@ public class InitialState implements State {
         return capitalize(name) + parameters.stream().map(p -> DslUtils.simpleName(p.type())).collect(joining());
     }
 
+    private Map<String, MethodModel> methodSignatures(TypeModel<?> typeModel) {
+        return methodSignatures.computeIfAbsent(typeModel, type -> type.methods().stream().collect(toMap(m -> signatureKey(m.name(), m.parameters()), identity())));
+    }
+
     private class KeywordState implements State {
         private final TypeModel<?> typeModel;
         private final String methodName;
@@ -58,11 +66,13 @@ public class InitialState implements State {
             this.typeModel = typeModel;
             this.methodName = methodName;
             this.aliases = aliases;
-            methodSignatures = typeModel.methods().stream().collect(toMap(m -> signatureKey(m.name(), m.parameters()), identity()));
+            this.methodSignatures = methodSignatures(typeModel);
             this.modifiers = modifiers;
         }
         private MethodModel reduce(TypeModel returnType) {
-            return methodSignatures.computeIfAbsent(signatureKey(methodName, parameters), key -> addMethod(key, returnType));
+            String key = signatureKey(methodName, parameters);
+            MethodModel method = methodSignatures.get(key);
+            return isNull(method) ? addMethod(key, returnType) : method;
         }
         private MethodModel addMethod(String key, TypeModel<?> returnType) {
             List<TypeModel<?>> typeParameters = this.typeModel.typeParameters();
@@ -78,11 +88,15 @@ public class InitialState implements State {
                 typeModel.types().add(returnType);
             }
             MethodModel method = factory.method(asList(modifiers), methodName, parameters).returnType(returnType).typeParameters(methodTypeParameters);
+            if(useVarargs && !parameters.isEmpty() && parameters.get(parameters.size() - 1).type().isArray())
+                method.metadata().put("varargs", true);
             typeModel.methods().add(method);
+            methodSignatures.put(key, method);
             for(String alias : aliases) {
-                MethodModel aliasMethod = factory.defaultMethod(alias, parameters).returnType(returnType).typeParameters(methodTypeParameters);
+                MethodModel aliasMethod = varargs(factory.defaultMethod(alias, parameters).returnType(returnType).typeParameters(methodTypeParameters), method);
                 aliasMethod.body().add(factory.statementModel(factory.parameter(typeModel, "this"), method));
                 typeModel.methods().add(aliasMethod);
+                methodSignatures.putIfAbsent(signatureKey(alias, parameters), aliasMethod);
 
             }
 
@@ -0,0 +1,144 @@
+package fluent.dsl.plugin;
+
+import fluent.api.model.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static fluent.dsl.plugin.DslUtils.capitalize;
+import static fluent.dsl.plugin.DslUtils.statement;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.Objects.nonNull;
+import static java.util.stream.Collectors.joining;
+import static javax.lang.model.element.Modifier.*;
+
+/**
+ * Wraps calls of bound methods in sentences of one DSL with optional measurement (metrics) and with JFR events.
+ * Both are guarded by a flag, which is constant when disabled, so the sentence then costs the same as without them.
+ */
+public class Instrumentation {
+
+    private static final String METRICS = "fluent.dsl.metrics";
+    private static final Set<String> EVENT_FIELD_TYPES = new HashSet<>(asList("boolean", "char", "byte", "short", "int", "long", "float", "double", "java.lang.String"));
+
+    private final ModelFactory factory;
+    private final InterfaceModel dslType;
+    private final ClassModel metrics;
+    private final List<ClassModel> events;
+    private final Set<String> eventNames = new HashSet<>();
+
+    public Instrumentation(ModelFactory factory, InterfaceModel dslType, boolean metrics, boolean events) {
+        this.factory = factory;
+        this.dslType = dslType;
+        this.metrics = metrics ? metrics() : null;
+        this.events = events ? new ArrayList<>() : null;
+    }
+
+    private ClassModel metrics() {
+        ClassModel metrics = factory.classModel(dslType.rawType().fullName(), "Metrics");
+        metrics.modifiers().keywords().add(FINAL);
+        metrics.fields().put("DSL", constant(factory.classModel(METRICS, "DslMetrics"), "DSL", "new " + METRICS + ".DslMetrics(\"" + dslType.rawType().fullName() + "\")"));
+        return metrics;
+    }
+
+    private VarModel constant(TypeModel<?> type, String name, String initializer) {
+        VarModel constant = factory.parameter(type, name).initializer(initializer);
+        constant.modifiers().keywords().addAll(asList(PUBLIC, STATIC, FINAL));
+        return constant;
+    }
+
+    public StatementModel[] wrap(StatementModel call, MethodModel method) {
+        List<StatementModel> body = singletonList(call);
+        String sentence = method.name() + method.parameters().stream().map(parameter -> parameter.type().simpleName()).collect(joining(", ", "(", ")"));
+        if(nonNull(events))
+            body = event(body, method, sentence);
+        if(nonNull(metrics))
+            body = measure(body, method, sentence);
+        return body.toArray(new StatementModel[0]);
+    }
+
+    /**
+     * Adds generated types and methods to the DSL, after all sentences were wrapped.
+     */
+    public void complete() {
+        if(nonNull(events))
+            dslType.types().addAll(events);
+        if(nonNull(metrics)) {
+            MethodModel metricsMethod = factory.staticMethod("metrics", emptyList()).returnType(factory.classModel(METRICS, "DslMetrics"));
+            metricsMethod.body().add(statement("return " + metrics.fullName() + ".DSL;"));
+            dslType.methods().add(metricsMethod);
+            dslType.types().add(metrics);
+        }
+    }
+
+    private List<StatementModel> measure(List<StatementModel> call, MethodModel method, String sentence) {
+        String name = method.name() + "$" + (metrics.fields().size() - 1);
+        metrics.fields().put(name, constant(factory.classModel(METRICS, "SentenceMetrics"), name, "DSL.sentence(\"" + sentence + "\")"));
+        String metric = metrics.fullName() + "." + name;
+        List<StatementModel> statements = fastPath("!" + METRICS + ".DslMetrics.ENABLED", call, method);
+        statements.add(statement("long $start = System.nanoTime();"));
+        statements.add(statement("try {"));
+        indent(statements, call);
+        statements.add(statement("} catch(Throwable $error) {"));
+        statements.add(statement("\t" + metric + ".error();"));
+        statements.add(statement("\tthrow $error;"));
+        statements.add(statement("} finally {"));
+        statements.add(statement("\t" + metric + ".record(System.nanoTime() - $start);"));
+        statements.add(statement("}"));
+        return statements;
+    }
+
+    private List<StatementModel> event(List<StatementModel> call, MethodModel method, String sentence) {
+        ClassModel event = factory.classModel(dslType.rawType().fullName(), eventName(method));
+        event.modifiers().keywords().add(FINAL);
+        event.superClass(factory.classModel("jdk.jfr", "Event"));
+        event.fields().put("sentence", factory.parameter(factory.classModel("java.lang", "String"), "sentence"));
+        events.add(event);
+        List<StatementModel> statements = new ArrayList<>();
+        statements.add(statement(event.fullName() + " $event = new " + event.fullName() + "();"));
+        statements.addAll(fastPath("!$event.isEnabled()", call, method));
+        statements.add(statement("$event.begin();"));
+        statements.add(statement("try {"));
+        indent(statements, call);
+        statements.add(statement("} finally {"));
+        statements.add(statement("\tif($event.shouldCommit()) {"));
+        statements.add(statement("\t\t$event.sentence = \"" + sentence + "\";"));
+        for(VarModel parameter : method.parameters()) {
+            if(!EVENT_FIELD_TYPES.contains(parameter.type().fullName()))
+                continue;
+            String field = event.fields().containsKey(parameter.name()) ? parameter.name() + "$" : parameter.name();
+            event.fields().put(field, factory.parameter(parameter.type(), field));
+            statements.add(statement("\t\t$event." + field + " = " + parameter.name() + ";"));
+        }
+        statements.add(statement("\t\t$event.commit();"));
+        statements.add(statement("\t}"));
+        statements.add(statement("}"));
+        return statements;
+    }
+
+    private String eventName(MethodModel method) {
+        String name = capitalize(method.name()) + "Event";
+        for(int i = 1; !eventNames.add(name); i++)
+            name = capitalize(method.name()) + i + "Event";
+        return name;
+    }
+
+    private static List<StatementModel> fastPath(String disabled, List<StatementModel> call, MethodModel method) {
+        List<StatementModel> statements = new ArrayList<>();
+        statements.add(statement("if(" + disabled + ") {"));
+        indent(statements, call);
+        if(!method.returnsValue())
+            statements.add(statement("\treturn;"));
+        statements.add(statement("}"));
+        return statements;
+    }
+
+    private static void indent(List<StatementModel> statements, List<StatementModel> block) {
+        block.forEach(statement -> statements.add(statement("\t" + statement)));
+    }
+
+}
@@ -0,0 +1,103 @@
+package fluent.dsl.plugin;
+
+import fluent.api.model.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static fluent.dsl.plugin.DslUtils.isVarargs;
+import static fluent.dsl.plugin.StepClasses.isStep;
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Minimization of step interfaces of one DSL. Sentences are parsed into tree of nested step interfaces (one per distinct
+ * path of keywords and parameter types), which is an automaton accepting the sentences. Step interfaces with the same
+ * methods leading to equivalent steps are equivalent states of it, so only the first of them is declared, and all
+ * others refer to it by it's qualified name.
+ * Methods of every step keep their bodies, so implementation (anonymous classes) of every sentence stays separate.
+ */
+public class Minimization {
+
+    private final ModelFactory factory;
+    private final Map<TypeModel<?>, String> names = new IdentityHashMap<>();
+    private final Map<TypeModel<?>, Integer> states = new IdentityHashMap<>();
+    private final Map<String, Integer> signatures = new HashMap<>();
+    private final List<TypeModel<?>> declared = new ArrayList<>();
+    private final Map<TypeModel<?>, InterfaceModel> references = new IdentityHashMap<>();
+
+    public Minimization(ModelFactory factory) {
+        this.factory = factory;
+    }
+
+    public void minimize(InterfaceModel root) {
+        collect(root, root.rawType().fullName());
+        merge(root);
+    }
+
+    private int collect(TypeModel<?> type, String name) {
+        names.put(type, name);
+        StringBuilder signature = new StringBuilder(typeParameters(type.typeParameters())).append("{");
+        for(MethodModel method : type.methods()) {
+            signature.append(method instanceof DefaultMethodModel ? "default " : "").append(typeParameters(method.typeParameters()));
+            signature.append(method.name()).append(method.parameters().stream().map(parameter -> parameter.type().fullName()).collect(joining(",", "(", ")")));
+            signature.append(isVarargs(method) ? "..." : "").append(":").append(returnType(type, method.returnType(), name));
+            if(method instanceof DefaultMethodModel)
+                method.body().forEach(statement -> signature.append(" ").append(statement));
+            signature.append(";");
+        }
+        Integer state = signatures.putIfAbsent(signature.append("}").toString(), signatures.size());
+        if(state == null) {
+            state = signatures.size() - 1;
+            declared.add(type);
+        }
+        states.put(type, state);
+        return state;
+    }
+
+    private String returnType(TypeModel<?> owner, TypeModel<?> returnType, String name) {
+        if(!owner.types().contains(returnType))
+            return returnType.fullName();
+        Integer state = states.get(returnType);
+        if(state == null)
+            state = collect(returnType, name + "." + returnType.rawType().simpleName());
+        return "#" + state + typeParameters(returnType.typeParameters());
+    }
+
+    private void merge(TypeModel<?> type) {
+        for(MethodModel method : type.methods())
+            if(isStep(method) && type.types().contains(method.returnType()))
+                merge(method.returnType());
+        type.types().removeIf(nested -> states.containsKey(nested) && !isDeclared(nested));
+        for(MethodModel method : type.methods())
+            if(states.containsKey(method.returnType()) && !isDeclared(method.returnType()))
+                method.returnType(reference(method.returnType()));
+    }
+
+    private boolean isDeclared(TypeModel<?> type) {
+        return declared.get(states.get(type)) == type;
+    }
+
+    private InterfaceModel reference(TypeModel<?> type) {
+        return references.computeIfAbsent(type, key -> {
+            String name = names.get(declared.get(states.get(type)));
+            int dot = name.lastIndexOf('.');
+            // Sibling step is in scope, so it doesn't need to be qualified.
+            String owner = name.substring(0, dot).equals(owner(names.get(type))) ? "" : name.substring(0, dot);
+            InterfaceModel reference = factory.interfaceModel(owner, name.substring(dot + 1)).typeParameters(type.typeParameters());
+            reference.methods().addAll(type.methods());
+            return reference;
+        });
+    }
+
+    private static String owner(String name) {
+        return name.substring(0, name.lastIndexOf('.'));
+    }
+
+    private static String typeParameters(List<TypeModel<?>> typeParameters) {
+        return typeParameters.stream().map(TypeModel::fullName).collect(joining(",", "<", ">"));
+    }
+
+}
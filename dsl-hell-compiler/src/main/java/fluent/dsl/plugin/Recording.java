@@ -0,0 +1,162 @@
+package fluent.dsl.plugin;
+
+import fluent.api.model.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static fluent.dsl.plugin.DslUtils.statement;
+import static fluent.dsl.plugin.DslUtils.traverse;
+import static fluent.dsl.plugin.DslUtils.varargs;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toSet;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.type.TypeKind.INT;
+import static javax.lang.model.type.TypeKind.VOID;
+
+/**
+ * Generates class implementing the binding interface, which doesn't execute anything, but appends every call to
+ * compact buffer: id of the sentence (method), primitive parameters in long array and other parameters in array of
+ * references. Calls can be later replayed on real binding in single loop, without walking the DSL keywords again.
+ */
+public class Recording {
+
+    private static final int CAPACITY = 16;
+
+    private final ModelFactory factory;
+
+    public Recording(ModelFactory factory) {
+        this.factory = factory;
+    }
+
+    public ClassModel implement(InterfaceModel root, InterfaceModel binding) {
+        ClassModel recording = factory.classModel(root.rawType().simpleName(), "Recording").typeParameters(binding.typeParameters());
+        recording.modifiers().keywords().add(FINAL);
+        recording.interfaces().add(binding);
+        buffer(recording, "int", "sentences", "size");
+        buffer(recording, "long", "primitives", "primitiveCount");
+        buffer(recording, "Object", "references", "referenceCount");
+
+        Set<String> typeParameters = binding.typeParameters().stream().map(TypeModel::fullName).collect(toSet());
+        MethodModel replay = factory.method("replay", factory.parameter(binding, "impl")).returnType(factory.primitive(INT));
+        // References are read from Object[], so casts to type variables of the binding are unchecked.
+        replay.metadata().put("suppressWarnings", "unchecked");
+        replay.body().add(statement("int primitive = 0, reference = 0;"));
+        replay.body().add(statement("for(int i = 0; i < size; i++) {"));
+        replay.body().add(statement("\tswitch(sentences[i]) {"));
+        int sentence = 0;
+        for(MethodModel method : binding.methods()) {
+            if(method.modifiers().isStatic())
+                continue;
+            recording.methods().add(record(method, sentence, typeParameters));
+            replay.body().add(statement("\t\tcase " + sentence++ + ":"));
+            replay.body().add(statement("\t\t\timpl." + method.name() + "(" + method.parameters().stream().map(parameter -> read(parameter.type(), typeParameters)).collect(joining(", ")) + ");"));
+            replay.body().add(statement("\t\t\tbreak;"));
+        }
+        replay.body().add(statement("\t}"));
+        replay.body().add(statement("}"));
+        replay.body().add(statement("return size;"));
+        recording.methods().add(replay);
+
+        MethodModel clear = factory.method("clear").returnType(factory.primitive(VOID));
+        clear.body().add(statement("java.util.Arrays.fill(references, 0, referenceCount, null);"));
+        clear.body().add(statement("size = primitiveCount = referenceCount = 0;"));
+        recording.methods().add(clear);
+
+        recording.methods().add(append("$sentence", "int", "sentences", "size"));
+        recording.methods().add(append("$primitive", "long", "primitives", "primitiveCount"));
+        recording.methods().add(append("$reference", "Object", "references", "referenceCount"));
+        return recording;
+    }
+
+    private void buffer(ClassModel recording, String type, String name, String count) {
+        VarModel buffer = factory.parameter(factory.classModel("", type + "[]"), name).initializer("new " + type + "[" + CAPACITY + "]");
+        VarModel counter = factory.parameter(factory.primitive(INT), count);
+        buffer.modifiers().keywords().add(PRIVATE);
+        counter.modifiers().keywords().add(PRIVATE);
+        recording.fields().put(name, buffer);
+        recording.fields().put(count, counter);
+    }
+
+    private MethodModel record(MethodModel method, int sentence, Set<String> typeParameters) {
+        MethodModel record = varargs(factory.method(method.name(), method.parameters()).returnType(method.returnType()).typeParameters(methodTypeParameters(method, typeParameters)), method);
+        record.body().add(statement("$sentence(" + sentence + ");"));
+        for(VarModel parameter : method.parameters())
+            record.body().add(statement(write(parameter)));
+        if(method.returnsValue())
+            record.body().add(statement("return " + defaultValue(method.returnType()) + ";"));
+        return record;
+    }
+
+    private MethodModel append(String name, String type, String buffer, String count) {
+        MethodModel append = factory.method(name, factory.parameter(factory.classModel("", type), "value")).returnType(factory.primitive(VOID));
+        append.body().add(statement("if(" + count + " == " + buffer + ".length)"));
+        append.body().add(statement("\t" + buffer + " = java.util.Arrays.copyOf(" + buffer + ", " + count + " * 2);"));
+        append.body().add(statement(buffer + "[" + count + "++] = value;"));
+        return append;
+    }
+
+    private static List<TypeModel<?>> methodTypeParameters(MethodModel method, Set<String> typeParameters) {
+        List<TypeModel> used = new ArrayList<>();
+        method.parameters().forEach(parameter -> traverse(parameter.type(), used));
+        traverse(method.returnType(), used);
+        Map<String, TypeModel<?>> map = new LinkedHashMap<>();
+        used.stream().filter(type -> !typeParameters.contains(type.fullName())).forEach(type -> map.put(type.fullName(), type));
+        return new ArrayList<>(map.values());
+    }
+
+    private static String write(VarModel parameter) {
+        String name = parameter.name();
+        switch (parameter.type().fullName()) {
+            case "boolean": return "$primitive(" + name + " ? 1L : 0L);";
+            case "float": return "$primitive(Float.floatToRawIntBits(" + name + "));";
+            case "double": return "$primitive(Double.doubleToRawLongBits(" + name + "));";
+            case "byte": case "short": case "char": case "int": case "long": return "$primitive(" + name + ");";
+            default: return "$reference(" + name + ");";
+        }
+    }
+
+    private static String read(TypeModel<?> type, Set<String> typeParameters) {
+        switch (type.fullName()) {
+            case "boolean": return "primitives[primitive++] != 0";
+            case "float": return "Float.intBitsToFloat((int) primitives[primitive++])";
+            case "double": return "Double.longBitsToDouble(primitives[primitive++])";
+            case "long": return "primitives[primitive++]";
+            case "byte": case "short": case "char": case "int": return "(" + type.fullName() + ") primitives[primitive++]";
+            default:
+                String cast = cast(type, typeParameters);
+                return cast.equals("java.lang.Object") ? "references[reference++]" : "(" + cast + ") references[reference++]";
+        }
+    }
+
+    /**
+     * Type variables of generic methods are not known in the replay loop, so types using them are cast to their
+     * erasure, and the call is unchecked.
+     */
+    private static String cast(TypeModel<?> type, Set<String> typeParameters) {
+        if(type.isArray())
+            return cast(type.componentType(), typeParameters) + "[]";
+        if(type.isTypeVariable())
+            return typeParameters.contains(type.fullName()) ? type.fullName() : "java.lang.Object";
+        List<TypeModel> used = new ArrayList<>();
+        traverse(type, used);
+        return used.stream().allMatch(t -> typeParameters.contains(t.fullName())) ? type.fullName() : type.rawType().fullName();
+    }
+
+    private static String defaultValue(TypeModel<?> type) {
+        switch (type.fullName()) {
+            case "boolean": return "false";
+            case "char": return "'\\0'";
+            case "long": return "0L";
+            case "float": return "0.0f";
+            case "double": return "0.0";
+            case "byte": case "short": case "int": return "0";
+            default: return "null";
+        }
+    }
+
+}
@@ -0,0 +1,60 @@
+package fluent.dsl.plugin;
+
+import fluent.api.model.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static fluent.dsl.plugin.DslUtils.statement;
+import static java.util.Arrays.asList;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+
+public class StepClasses {
+
+    private final ModelFactory factory;
+
+    public StepClasses(ModelFactory factory) {
+        this.factory = factory;
+    }
+
+    public MethodModel implement(InterfaceModel type, List<VarModel> collected) {
+        ClassModel impl = factory.classModel(type.rawType().simpleName(), "Impl").typeParameters(type.typeParameters());
+        impl.modifiers().keywords().add(FINAL);
+        impl.interfaces().add(type);
+        for(VarModel variable : collected) {
+            VarModel field = factory.parameter(variable.type(), variable.name());
+            field.modifiers().keywords().addAll(asList(PRIVATE, FINAL));
+            impl.fields().put(field.name(), field);
+        }
+        MethodModel constructor = factory.constructor(impl, collected.toArray(new VarModel[0]));
+        collected.forEach(variable -> constructor.body().add(statement("this." + variable.name() + " = " + variable.name() + ";")));
+        impl.methods().add(constructor);
+        for(MethodModel method : type.methods()) {
+            if(method instanceof DefaultMethodModel || method instanceof StaticMethodModel)
+                continue;
+            if(isStep(method))
+                method.body().add(factory.statementModel(null, implement((InterfaceModel) method.returnType(), concat(collected, method.parameters()))));
+            impl.methods().add(method);
+        }
+        type.types().add(impl);
+        return constructor;
+    }
+
+    public void implementEntries(TypeModel<?> type) {
+        for(MethodModel method : type.methods())
+            if(method instanceof StaticMethodModel && isStep(method))
+                method.body().add(factory.statementModel(null, implement((InterfaceModel) method.returnType(), method.parameters())));
+    }
+
+    static boolean isStep(MethodModel method) {
+        return method.body().isEmpty() && method.returnType() instanceof InterfaceModel;
+    }
+
+    static List<VarModel> concat(List<VarModel> collected, List<VarModel> parameters) {
+        List<VarModel> list = new ArrayList<>(collected);
+        list.addAll(parameters);
+        return list;
+    }
+
+}
@@ -28,7 +28,6 @@
  */
 package fluent.dsl.processor;
 
-import fluent.api.model.ModelFactory;
 import fluent.api.model.TypeModel;
 import fluent.api.model.impl.ModelFactoryImpl;
 import fluent.dsl.Dsl;
@@ -37,59 +36,198 @@ import javax.annotation.processing.AbstractProcessor;
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.annotation.processing.RoundEnvironment;
 import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.TypeElement;
-import javax.tools.Diagnostic;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Set;
+import java.io.Writer;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 import static fluent.dsl.generator.DslWriter.dslWriter;
+import static fluent.dsl.processor.DslAnnotationProcessor.CACHE;
+import static fluent.dsl.processor.DslAnnotationProcessor.PARALLELISM;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 import static java.util.ServiceLoader.load;
 import static javax.tools.Diagnostic.Kind.WARNING;
 
 @SupportedAnnotationTypes("fluent.dsl.Dsl")
+@SupportedOptions({PARALLELISM, CACHE})
 public class DslAnnotationProcessor extends AbstractProcessor {
 
+    /**
+     * Number of threads used to render generated sources. Models are always built on the processor thread, as javac's
+     * Elements and Types aren't thread safe, and detached from them before rendering. Sources are written via Filer
+     * also from the processor thread.
+     */
+    public static final String PARALLELISM = "dsl.parallelism";
+
+    /**
+     * Directory of the generation cache shared across builds. Sources of a binding, whose signature didn't change since
+     * it was cached, are written from the cache without building and rendering its model. Least recently used entries
+     * beyond {@link GenerationCache#DEFAULT_LIMIT} are deleted after each round.
+     */
+    public static final String CACHE = "dsl.cache";
+
     private final List<DslAnnotationProcessorPlugin> plugins = new ArrayList<>();
+    private ModelFactoryImpl modelFactory;
+    private KeywordIndex keywords;
+    private int parallelism = 1;
+    private GenerationCache cache;
 
     @Override
     public synchronized void init(ProcessingEnvironment env) {
         super.init(env);
-        ModelFactory modelFactory = new ModelFactoryImpl(env.getElementUtils(), env.getTypeUtils());
+        modelFactory = new ModelFactoryImpl(env.getElementUtils(), env.getTypeUtils());
+        keywords = new KeywordIndex(env.getElementUtils());
+        loadPlugins(env);
+        if(env.getOptions().containsKey(PARALLELISM)) try {
+            parallelism = Math.max(1, Integer.parseInt(env.getOptions().get(PARALLELISM)));
+        } catch (NumberFormatException e) {
+            env.getMessager().printMessage(WARNING, "Invalid value of option " + PARALLELISM + ": " + env.getOptions().get(PARALLELISM));
+        }
+        if(env.getOptions().containsKey(CACHE))
+            cache = new GenerationCache(Paths.get(env.getOptions().get(CACHE)), plugins);
+    }
+
+    // Failure of one plugin (e.g. compiled against incompatible SPI) must not prevent loading of the others.
+    private void loadPlugins(ProcessingEnvironment env) {
         try {
-            load(DslAnnotationProcessorPluginFactory.class, DslAnnotationProcessorPluginFactory.class.getClassLoader()).forEach(factory -> plugins.add(factory.createPlugin(modelFactory)));
+            Iterator<DslAnnotationProcessorPluginFactory> factories = load(DslAnnotationProcessorPluginFactory.class, DslAnnotationProcessorPluginFactory.class.getClassLoader()).iterator();
+            while(factories.hasNext()) try {
+                plugins.add(factories.next().createPlugin(modelFactory, keywords));
+            } catch (RuntimeException | Error e) {
+                env.getMessager().printMessage(WARNING, "Unable to load plugin: " + e);
+            }
         } catch (RuntimeException | Error e) {
-            env.getMessager().printMessage(WARNING, "Unable to load plugin: " + e);
+            env.getMessager().printMessage(WARNING, "Unable to load plugins: " + e);
         }
     }
 
     @Override
     public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        List<GeneratedSource> sources = new ArrayList<>();
         for(Element element : roundEnv.getElementsAnnotatedWith(Dsl.class))
-            processElement(element);
+            processElement(element, sources);
+        keywords.clear();
+        modelFactory.detach();
+        render(sources);
+        sources.forEach(this::write);
+        if(nonNull(cache))
+            store(sources);
         return true;
     }
 
-    private void processElement(Element element) {
+    private void processElement(Element element, List<GeneratedSource> sources) {
         Dsl dsl = element.getAnnotation(Dsl.class);
+        List<GeneratedSource> generated = new ArrayList<>();
         try {
+            String fingerprint = nonNull(cache) ? cache.fingerprint(element, keywords) : null;
+            Map<String, String> cached = nonNull(fingerprint) ? cache.load(fingerprint) : null;
+            if(nonNull(cached)) {
+                cached.forEach((name, content) -> sources.add(new GeneratedSource(element, name, content)));
+                return;
+            }
             for(DslAnnotationProcessorPlugin plugin : plugins)
                 if(plugin.isFor(element))
-                    applyPlugin(plugin, element, dsl);
+                    generated.add(new GeneratedSource(element, plugin.process(element, dsl), fingerprint));
         } catch (Throwable throwable) {
-            processingEnv.getMessager().printMessage(WARNING, "Unable to generate DSL for " + element + ": " + throwable, element);
+            warning(element, throwable);
+            generated.forEach(source -> source.fingerprint = null);
         }
+        sources.addAll(generated);
     }
 
-    private void applyPlugin(DslAnnotationProcessorPlugin plugin, Element element, Dsl dsl) {
-        TypeModel<?> model = plugin.process(element, dsl);
-        try(PrintWriter writer = new PrintWriter(processingEnv.getFiler().createSourceFile(model.rawType().fullName()).openWriter())) {
-            dslWriter(writer).writeFile(model);
+    private void render(List<GeneratedSource> sources) {
+        if(parallelism == 1 || sources.size() < 2) {
+            sources.forEach(GeneratedSource::render);
+            return;
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> sources.parallelStream().forEach(GeneratedSource::render)).join();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void write(GeneratedSource source) {
+        if(nonNull(source.failure)) {
+            warning(source.element, source.failure);
+            return;
+        }
+        try(Writer writer = processingEnv.getFiler().createSourceFile(source.name, source.element).openWriter()) {
+            writer.write(source.content);
         } catch (IOException e) {
             e.printStackTrace();
+        } catch (RuntimeException e) {
+            warning(source.element, e);
+        }
+    }
+
+    private void store(List<GeneratedSource> sources) {
+        Map<String, Map<String, String>> entries = new LinkedHashMap<>();
+        Set<String> failed = new HashSet<>();
+        for(GeneratedSource source : sources) {
+            if(isNull(source.fingerprint))
+                continue;
+            if(isNull(source.content))
+                failed.add(source.fingerprint);
+            else
+                entries.computeIfAbsent(source.fingerprint, key -> new LinkedHashMap<>()).put(source.name, source.content);
+        }
+        entries.forEach((fingerprint, entry) -> {
+            if(!failed.contains(fingerprint)) try {
+                cache.store(fingerprint, entry);
+            } catch (IOException | RuntimeException e) {
+                processingEnv.getMessager().printMessage(WARNING, "Unable to store generated sources in cache: " + e);
+            }
+        });
+        try {
+            cache.prune();
+        } catch (IOException | RuntimeException e) {
+            processingEnv.getMessager().printMessage(WARNING, "Unable to prune cache: " + e);
+        }
+    }
+
+    private void warning(Element element, Throwable throwable) {
+        processingEnv.getMessager().printMessage(WARNING, "Unable to generate DSL for " + element + ": " + throwable, element);
+    }
+
+    private static final class GeneratedSource {
+        private final Element element;
+        private final String name;
+        private final TypeModel<?> model;
+        private String fingerprint;
+        private String content;
+        private Throwable failure;
+
+        private GeneratedSource(Element element, TypeModel<?> model, String fingerprint) {
+            this.element = element;
+            this.name = model.rawType().fullName();
+            this.model = model;
+            this.fingerprint = fingerprint;
+        }
+
+        private GeneratedSource(Element element, String name, String content) {
+            this.element = element;
+            this.name = name;
+            this.model = null;
+            this.content = content;
+        }
+
+        private void render() {
+            if(nonNull(content))
+                return;
+            StringBuilder builder = new StringBuilder();
+            try {
+                dslWriter(builder).writeFile(model);
+                content = builder.toString();
+            } catch (Throwable throwable) {
+                failure = throwable;
+            }
         }
     }
 
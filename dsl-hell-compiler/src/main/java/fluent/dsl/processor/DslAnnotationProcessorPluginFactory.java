@@ -32,6 +32,21 @@ import fluent.api.model.ModelFactory;
 
 public interface DslAnnotationProcessorPluginFactory {
 
-    DslAnnotationProcessorPlugin createPlugin(ModelFactory factory);
+    /**
+     * @deprecated Implement {@link #createPlugin(ModelFactory, KeywordIndex)}, which is called by the processor. This
+     * method is only kept, so factories compiled against previous versions keep working.
+     */
+    @Deprecated
+    default DslAnnotationProcessorPlugin createPlugin(ModelFactory factory) {
+        throw new UnsupportedOperationException(getClass().getName() + " must implement createPlugin(ModelFactory, KeywordIndex)");
+    }
+
+    /**
+     * Creates plugin, which resolves keywords using index shared by all plugins within a processing round.
+     * By default delegates to {@link #createPlugin(ModelFactory)} implemented by older factories.
+     */
+    default DslAnnotationProcessorPlugin createPlugin(ModelFactory factory, KeywordIndex keywords) {
+        return createPlugin(factory);
+    }
 
 }
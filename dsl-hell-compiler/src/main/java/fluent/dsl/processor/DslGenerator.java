@@ -0,0 +1,141 @@
+package fluent.dsl.processor;
+
+import javax.tools.DiagnosticListener;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.Comparator.reverseOrder;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Generates DSL sources outside of the compilation. Javac is only used to parse the sources and provide the elements
+ * to {@link DslAnnotationProcessor} (-proc:only), and the generated sources are synchronized to the output directory,
+ * writing only files with changed content, and deleting files, which are not generated anymore.
+ * Unchanged bindings are served from the generation cache in the work directory.
+ */
+public final class DslGenerator implements AutoCloseable {
+
+    private final JavaCompiler compiler;
+    private final StandardJavaFileManager fileManager;
+    private final DiagnosticListener<? super JavaFileObject> listener;
+    private final List<String> options;
+    private final Path staging;
+    private final Path output;
+
+    public DslGenerator(List<String> classpath, Path workDirectory, Path output, Charset charset, int parallelism, DiagnosticListener<? super JavaFileObject> listener) {
+        this.compiler = ToolProvider.getSystemJavaCompiler();
+        if(compiler == null)
+            throw new IllegalStateException("DSL generation requires JDK, but no system Java compiler was found.");
+        this.fileManager = compiler.getStandardFileManager(null, null, charset);
+        this.listener = listener;
+        this.staging = workDirectory.resolve("staging");
+        this.output = output;
+        this.options = asList(
+                "-proc:only",
+                "-implicit:none",
+                "-encoding", charset.name(),
+                "-classpath", String.join(File.pathSeparator, classpath),
+                "-s", staging.toString(),
+                "-A" + DslAnnotationProcessor.CACHE + "=" + workDirectory.resolve("cache"),
+                "-A" + DslAnnotationProcessor.PARALLELISM + "=" + parallelism
+        );
+    }
+
+    public Result generate(List<File> sources) throws IOException {
+        clean(staging);
+        if(!sources.isEmpty()) {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, listener, options, null, fileManager.getJavaFileObjectsFromFiles(sources));
+            task.setProcessors(singletonList(new DslAnnotationProcessor()));
+            if(!task.call())
+                return new Result(false, 0, 0, 0);
+        }
+        Set<Path> generated = new HashSet<>(files(staging));
+        int written = 0;
+        for(Path file : generated) {
+            Path target = output.resolve(staging.relativize(file).toString());
+            byte[] content = Files.readAllBytes(file);
+            if(Files.isRegularFile(target) && Arrays.equals(content, Files.readAllBytes(target)))
+                continue;
+            Files.createDirectories(target.getParent());
+            Files.write(target, content);
+            written++;
+        }
+        int deleted = 0;
+        for(Path file : files(output))
+            if(!generated.contains(staging.resolve(output.relativize(file).toString())))
+                deleted += Files.deleteIfExists(file) ? 1 : 0;
+        return new Result(true, generated.size(), written, deleted);
+    }
+
+    @Override
+    public void close() throws IOException {
+        fileManager.close();
+    }
+
+    public static List<File> sources(Path directory) throws IOException {
+        return files(directory).stream().filter(path -> path.toString().endsWith(".java")).map(Path::toFile).sorted().collect(toList());
+    }
+
+    private static List<Path> files(Path directory) throws IOException {
+        if(!Files.isDirectory(directory))
+            return Collections.emptyList();
+        try(Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).collect(toList());
+        }
+    }
+
+    private static void clean(Path directory) throws IOException {
+        if(Files.exists(directory)) try(Stream<Path> files = Files.walk(directory)) {
+            for(Path file : files.sorted(reverseOrder()).collect(toList()))
+                Files.delete(file);
+        }
+        Files.createDirectories(directory);
+    }
+
+    public static final class Result {
+        private final boolean success;
+        private final int generated;
+        private final int written;
+        private final int deleted;
+
+        private Result(boolean success, int generated, int written, int deleted) {
+            this.success = success;
+            this.generated = generated;
+            this.written = written;
+            this.deleted = deleted;
+        }
+
+        public boolean success() {
+            return success;
+        }
+
+        public int generated() {
+            return generated;
+        }
+
+        public int written() {
+            return written;
+        }
+
+        public int deleted() {
+            return deleted;
+        }
+
+        @Override
+        public String toString() {
+            return "Generated " + generated + " DSL sources: " + written + " written, " + deleted + " stale deleted, " + (generated - written) + " unchanged.";
+        }
+    }
+
+}
@@ -0,0 +1,232 @@
+package fluent.dsl.processor;
+
+import fluent.api.model.impl.ModelFactoryImpl;
+
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Comparator.comparingLong;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * On-disk cache of generated sources. Entries are keyed by fingerprint of everything the generated DSL depends on:
+ * the annotated element, signatures and annotations of the members, keywords with their aliases, and the generator
+ * itself, identified by content hash of code sources of the processor, the model and the plugins. Method bodies are not
+ * part of the fingerprint, so their change doesn't cause regeneration.
+ * Entries are touched, when loaded, so the least recently used ones can be deleted, when the cache exceeds its limit.
+ */
+public final class GenerationCache {
+
+    /**
+     * Default maximal number of entries kept by {@link #prune()}.
+     */
+    public static final int DEFAULT_LIMIT = 1000;
+
+    // Hashes of jars by their location and last modification time, so they are not read again by each processor.
+    private static final Map<String, String> JAR_HASHES = new ConcurrentHashMap<>();
+
+    private final Path directory;
+    private final String generator;
+    private final int limit;
+
+    public GenerationCache(Path directory, Collection<?> plugins) {
+        this(directory, plugins, DEFAULT_LIMIT);
+    }
+
+    public GenerationCache(Path directory, Collection<?> plugins, int limit) {
+        this.directory = directory;
+        this.limit = limit;
+        Set<String> versions = new LinkedHashSet<>(Arrays.asList(version(GenerationCache.class), version(ModelFactoryImpl.class)));
+        plugins.forEach(plugin -> versions.add(version(plugin.getClass())));
+        this.generator = String.join(";", versions);
+    }
+
+    private static String version(Class<?> type) {
+        CodeSource source = type.getProtectionDomain().getCodeSource();
+        if(isNull(source) || isNull(source.getLocation()))
+            return unknownVersion(type.getName());
+        try {
+            Path path = Paths.get(source.getLocation().toURI());
+            if(Files.isDirectory(path))
+                return hash(path);
+            return JAR_HASHES.computeIfAbsent(path + "@" + Files.getLastModifiedTime(path).toMillis(), key -> {
+                try {
+                    return hash(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (Exception e) {
+            return unknownVersion(source.getLocation().toString());
+        }
+    }
+
+    // Version of code, that can't be read, never matches any stored entry.
+    private static String unknownVersion(String location) {
+        return location + "@" + UUID.randomUUID();
+    }
+
+    private static String hash(Path codeSource) throws IOException {
+        MessageDigest digest = digest();
+        if(Files.isDirectory(codeSource)) try(Stream<Path> files = Files.walk(codeSource)) {
+            for(Path file : files.filter(Files::isRegularFile).sorted().collect(toList())) {
+                digest.update(codeSource.relativize(file).toString().getBytes(UTF_8));
+                digest.update(Files.readAllBytes(file));
+            }
+        } else {
+            digest.update(Files.readAllBytes(codeSource));
+        }
+        return hex(digest.digest());
+    }
+
+    public String fingerprint(Element element, KeywordIndex keywords) {
+        StringBuilder builder = new StringBuilder(generator).append('\n');
+        if(element instanceof VariableElement) {
+            describe(builder, keywords, element.getEnclosingElement().getEnclosingElement());
+            describe(builder, keywords, element.getEnclosingElement());
+            describe(builder, keywords, element);
+            describeDeclared(builder, keywords, element.asType());
+        } else {
+            describeType(builder, keywords, element);
+        }
+        return hash(builder.toString());
+    }
+
+    private void describeDeclared(StringBuilder builder, KeywordIndex keywords, TypeMirror type) {
+        if(type.getKind() == TypeKind.DECLARED) {
+            describeType(builder, keywords, ((DeclaredType) type).asElement());
+            ((DeclaredType) type).getTypeArguments().forEach(argument -> describeDeclared(builder, keywords, argument));
+        }
+    }
+
+    private void describeType(StringBuilder builder, KeywordIndex keywords, Element type) {
+        describe(builder, keywords, type);
+        for(Element member : type.getEnclosedElements()) {
+            describe(builder, keywords, member);
+            if(member instanceof ExecutableElement)
+                for(VariableElement parameter : ((ExecutableElement) member).getParameters())
+                    describe(builder, keywords, parameter);
+        }
+    }
+
+    private void describe(StringBuilder builder, KeywordIndex keywords, Element element) {
+        builder.append(element.getKind()).append(' ').append(element.getModifiers()).append(' ').append(element).append(' ').append(element.asType());
+        describe(builder, keywords, element.getAnnotationMirrors());
+        builder.append('\n');
+    }
+
+    private void describe(StringBuilder builder, KeywordIndex keywords, List<? extends AnnotationMirror> annotations) {
+        for(AnnotationMirror annotation : annotations) {
+            KeywordIndex.Keyword keyword = keywords.keyword(annotation.getAnnotationType().asElement());
+            builder.append(' ').append(annotation);
+            if(keyword.isConstant())
+                builder.append(" constant");
+            else if(keyword.isKeyword())
+                builder.append(" keyword ").append(keyword.dsl());
+            for(String alias : keyword.aliases())
+                builder.append(" alias ").append(alias);
+        }
+    }
+
+    private static String hash(String description) {
+        return hex(digest().digest(description.getBytes(UTF_8)));
+    }
+
+    private static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder();
+        for(byte b : bytes)
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        return hex.toString();
+    }
+
+    /**
+     * @return Generated sources by their class names, or null if there is no valid entry for the fingerprint.
+     */
+    public Map<String, String> load(String fingerprint) {
+        Path file = directory.resolve(fingerprint);
+        if(!Files.isRegularFile(file))
+            return null;
+        try(DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            Map<String, String> sources = new LinkedHashMap<>();
+            for(int i = input.readInt(); i > 0; i--) {
+                String name = input.readUTF();
+                byte[] content = new byte[input.readInt()];
+                input.readFully(content);
+                sources.put(name, new String(content, UTF_8));
+            }
+            touch(file);
+            return sources;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public void store(String fingerprint, Map<String, String> sources) throws IOException {
+        Files.createDirectories(directory);
+        Path file = Files.createTempFile(directory, fingerprint, ".tmp");
+        try(DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            output.writeInt(sources.size());
+            for(Map.Entry<String, String> source : sources.entrySet()) {
+                byte[] content = source.getValue().getBytes(UTF_8);
+                output.writeUTF(source.getKey());
+                output.writeInt(content.length);
+                output.write(content);
+            }
+        }
+        Files.move(file, directory.resolve(fingerprint), REPLACE_EXISTING, ATOMIC_MOVE);
+    }
+
+    /**
+     * Deletes least recently used entries beyond the limit of the cache.
+     */
+    public void prune() throws IOException {
+        if(!Files.isDirectory(directory))
+            return;
+        List<File> entries;
+        try(Stream<Path> files = Files.list(directory)) {
+            entries = files.map(Path::toFile).filter(file -> !file.getName().endsWith(".tmp")).collect(toList());
+        }
+        if(entries.size() <= limit)
+            return;
+        Map<File, Long> times = new HashMap<>();
+        entries.forEach(entry -> times.put(entry, entry.lastModified()));
+        entries.sort(comparingLong(times::get));
+        for(File entry : entries.subList(0, entries.size() - limit))
+            Files.deleteIfExists(entry.toPath());
+    }
+
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // Entry, that couldn't be touched, is only pruned earlier.
+        }
+    }
+
+}
@@ -0,0 +1,128 @@
+package fluent.dsl.processor;
+
+import fluent.dsl.Constant;
+import fluent.dsl.Dsl;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.util.Elements;
+import java.util.*;
+
+import static java.util.Collections.unmodifiableSet;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.stream.Collectors.toCollection;
+import static javax.lang.model.element.ElementKind.ANNOTATION_TYPE;
+import static javax.lang.model.element.ElementKind.PACKAGE;
+
+/**
+ * Index of the DSL vocabulary used in current processing round. Every annotation type is resolved only once: if it's
+ * a constant, if it's a keyword (annotation type in scope of {@link Dsl}, i.e. annotated itself, nested in annotated
+ * type, or in annotated package or any of it's parent packages), and what are it's aliases. Packages are resolved once
+ * for all keywords in them.
+ * Index refers to elements of current round, so it needs to be cleared when the round is finished.
+ */
+public final class KeywordIndex {
+
+    private final Elements elements;
+    private final Map<Element, Keyword> keywords = new HashMap<>();
+    private final Map<String, Optional<Dsl>> packages = new HashMap<>();
+
+    /**
+     * @param elements Elements of current round used to find parent packages. If null, only the package of a keyword is
+     *                 searched for {@link Dsl}.
+     */
+    public KeywordIndex(Elements elements) {
+        this.elements = elements;
+    }
+
+    public Keyword keyword(Element annotationType) {
+        Keyword keyword = keywords.get(annotationType);
+        if(isNull(keyword)) {
+            boolean constant = nonNull(annotationType.getAnnotation(Constant.class));
+            keyword = new Keyword(annotationType, constant, constant ? null : dsl(annotationType));
+            keywords.put(annotationType, keyword);
+        }
+        return keyword;
+    }
+
+    public Dsl dsl(Element element) {
+        Element enclosing = element;
+        for(; nonNull(enclosing) && enclosing.getKind() != PACKAGE; enclosing = enclosing.getEnclosingElement()) {
+            Dsl dsl = enclosing.getAnnotation(Dsl.class);
+            if(nonNull(dsl))
+                return dsl;
+        }
+        return nonNull(enclosing) ? dsl((PackageElement) enclosing) : null;
+    }
+
+    private Dsl dsl(PackageElement element) {
+        String name = element.getQualifiedName().toString();
+        Optional<Dsl> dsl = packages.get(name);
+        if(isNull(dsl)) {
+            Dsl own = element.getAnnotation(Dsl.class);
+            PackageElement parent = isNull(own) ? parent(name) : null;
+            dsl = Optional.ofNullable(isNull(parent) ? own : dsl(parent));
+            packages.put(name, dsl);
+        }
+        return dsl.orElse(null);
+    }
+
+    /**
+     * Intermediate packages without any types may not exist, so the closest existing one is used.
+     */
+    private PackageElement parent(String name) {
+        if(isNull(elements))
+            return null;
+        for(int dot = name.lastIndexOf('.'); dot > 0; dot = name.lastIndexOf('.', dot - 1)) {
+            PackageElement parent = elements.getPackageElement(name.substring(0, dot));
+            if(nonNull(parent))
+                return parent;
+        }
+        return null;
+    }
+
+    public void clear() {
+        keywords.clear();
+        packages.clear();
+    }
+
+    public static final class Keyword {
+        private final String name;
+        private final boolean constant;
+        private final Dsl dsl;
+        private final Set<String> aliases;
+
+        private Keyword(Element annotationType, boolean constant, Dsl dsl) {
+            this.name = annotationType.getSimpleName().toString();
+            this.constant = constant;
+            this.dsl = dsl;
+            Set<String> aliases = annotationType.getEnclosedElements().stream().filter(e -> e.getKind() == ANNOTATION_TYPE).map(alias -> alias.getSimpleName().toString()).collect(toCollection(LinkedHashSet::new));
+            this.aliases = unmodifiableSet(aliases);
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public boolean isConstant() {
+            return constant;
+        }
+
+        public boolean isKeyword() {
+            return nonNull(dsl);
+        }
+
+        /**
+         * @return Dsl annotation, in scope of which the keyword is, or null if it's not a keyword.
+         */
+        public Dsl dsl() {
+            return dsl;
+        }
+
+        public Set<String> aliases() {
+            return aliases;
+        }
+    }
+
+}
@@ -0,0 +1,18 @@
+package fluent.async;
+
+import fluent.dsl.Dsl;
+import fluent.dsl.def.*;
+
+import static fluent.dsl.Dsl.Implementation.CURSOR;
+
+@Dsl(async = true, implementation = CURSOR)
+@withApplication
+public interface AsyncAutomation<T> {
+
+    void injectOrder(@injects T order, @into String destination);
+
+    int count(@mustSee @only String value);
+
+    T find(@orderId String... ids);
+
+}
@@ -0,0 +1,58 @@
+package fluent.async;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+public class AsyncAutomationTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterClass
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void testSubmitsToExecutor() {
+        AsyncAutomation<String> mock = mock(AsyncAutomation.class);
+        when(mock.count("A")).thenReturn(5);
+        when(mock.find("1", "2")).thenReturn("B");
+        AsyncAutomationAsyncDsl<String> dsl = AsyncAutomationAsyncDsl.create(mock, executor);
+        CompletableFuture<Void> inject = dsl.withApplication().injects("A").into("Queue");
+        CompletableFuture<Integer> count = dsl.withApplication().mustSee().only("A");
+        CompletableFuture<String> find = dsl.withApplication().orderId("1", "2");
+        assertEquals(count.join(), Integer.valueOf(5));
+        assertEquals(find.join(), "B");
+        inject.join();
+        verify(mock).injectOrder("A", "Queue");
+    }
+
+    @Test
+    public void testCallIsDeferredUntilExecuted() {
+        AsyncAutomation<String> mock = mock(AsyncAutomation.class);
+        Runnable[] submitted = new Runnable[1];
+        Executor executor = command -> submitted[0] = command;
+        CompletableFuture<Void> future = AsyncAutomationAsyncDsl.create(mock, executor).withApplication().injects("A").into("Queue");
+        verifyZeroInteractions(mock);
+        assertFalse(future.isDone());
+        submitted[0].run();
+        future.join();
+        verify(mock).injectOrder("A", "Queue");
+    }
+
+    @Test
+    public void testStaticBinding() {
+        assertEquals(StaticDslAsync.create(executor).injects("A").into("Queue").join(), "A -> Queue");
+        assertEquals(StaticDsl.Static.injects("A").into("Queue"), "A -> Queue");
+    }
+
+}
@@ -0,0 +1,13 @@
+package fluent.async;
+
+import fluent.dsl.Dsl;
+import fluent.dsl.def.*;
+
+@Dsl(async = true, className = "StaticDsl")
+public class StaticAsyncAutomation {
+
+    public static String send(@injects String order, @into String destination) {
+        return order + " -> " + destination;
+    }
+
+}
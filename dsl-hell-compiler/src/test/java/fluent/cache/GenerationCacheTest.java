@@ -0,0 +1,89 @@
+package fluent.cache;
+
+import fluent.compilation.CompilingTest;
+import fluent.dsl.processor.DslAnnotationProcessor;
+import fluent.dsl.processor.GenerationCache;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+public class GenerationCacheTest extends CompilingTest {
+
+    private static final String MARKER = "// from cache\n";
+
+    private String generate(Path cache, String members) throws IOException {
+        Path output = compile(new DslAnnotationProcessor(), singletonList(source("fluent.cache.source.Binding", binding("fluent.cache.source", members))), "-A" + DslAnnotationProcessor.CACHE + "=" + cache);
+        return new String(Files.readAllBytes(output.resolve("fluent/cache/source/BindingDsl.java")));
+    }
+
+    private static void markEntries(Path cache) throws IOException {
+        GenerationCache generationCache = new GenerationCache(cache, emptyList());
+        try(Stream<Path> files = Files.list(cache)) {
+            for(Path file : files.collect(toList())) {
+                String fingerprint = file.getFileName().toString();
+                Map<String, String> sources = generationCache.load(fingerprint);
+                sources.replaceAll((name, content) -> content + MARKER);
+                generationCache.store(fingerprint, sources);
+            }
+        }
+    }
+
+    private static Set<String> entries(Path cache) throws IOException {
+        try(Stream<Path> files = Files.list(cache)) {
+            return files.map(file -> file.getFileName().toString()).collect(toSet());
+        }
+    }
+
+    @Test
+    public void unchangedSignatureIsServedFromCache() throws IOException {
+        Path cache = directory("dsl-hell-cache");
+        String generated = generate(cache, "    public void inject(@injects String order, @into String destination) {}\n");
+        assertEquals(entries(cache).size(), 1);
+        markEntries(cache);
+        String cached = generate(cache, "    public void inject(@injects String order, @into String destination) { System.out.println(order); }\n");
+        assertEquals(cached, generated + MARKER);
+    }
+
+    @Test
+    public void changedSignatureIsRegenerated() throws IOException {
+        Path cache = directory("dsl-hell-cache");
+        generate(cache, "    public void inject(@injects String order, @into String destination) {}\n");
+        markEntries(cache);
+        String generated = generate(cache, "    public void inject(@injects String order, @into Integer destination) {}\n");
+        assertFalse(generated.contains(MARKER));
+        assertTrue(generated.contains("void into(java.lang.Integer destination)"));
+        assertEquals(entries(cache).size(), 2);
+    }
+
+    @Test
+    public void leastRecentlyUsedEntriesArePruned() throws IOException {
+        Path cache = directory("dsl-hell-cache");
+        GenerationCache generationCache = new GenerationCache(cache, emptyList(), 2);
+        long time = 1_000_000_000_000L;
+        for(String fingerprint : asList("a", "b", "c")) {
+            generationCache.store(fingerprint, singletonMap("Dsl", fingerprint));
+            Files.setLastModifiedTime(cache.resolve(fingerprint), FileTime.fromMillis(time += 1000));
+        }
+        assertNotNull(generationCache.load("a"));
+        generationCache.prune();
+        assertEquals(entries(cache), asList("a", "c").stream().collect(toSet()));
+    }
+
+}
@@ -0,0 +1,81 @@
+package fluent.compilation;
+
+import org.testng.annotations.AfterMethod;
+
+import javax.annotation.processing.Processor;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Base of tests, which compile sources in memory with an annotation processor. Directories created by the test are
+ * deleted after each test method.
+ */
+public abstract class CompilingTest {
+
+    private final List<Path> directories = new ArrayList<>();
+
+    /**
+     * @return Source of class Binding annotated with @Dsl, which declares keywords injects and into.
+     */
+    protected static String binding(String packageName, String members) {
+        return "package " + packageName + ";\n" +
+                "@fluent.dsl.Dsl\n" +
+                "public class Binding {\n" +
+                "    @interface injects {}\n" +
+                "    @interface into {}\n" +
+                members +
+                "}\n";
+    }
+
+    protected static JavaFileObject source(String className, String content) {
+        return new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return content;
+            }
+        };
+    }
+
+    protected Path directory(String prefix) throws IOException {
+        Path directory = Files.createTempDirectory(prefix);
+        directories.add(directory);
+        return directory;
+    }
+
+    /**
+     * Compiles the sources with the processor on the test classpath, and asserts, that compilation succeeded.
+     * @return Output directory of both classes and generated sources.
+     */
+    protected Path compile(Processor processor, List<JavaFileObject> sources, String... options) throws IOException {
+        Path output = directory("dsl-hell-output");
+        List<String> arguments = new ArrayList<>(asList("-classpath", System.getProperty("java.class.path"), "-d", output.toString(), "-s", output.toString()));
+        arguments.addAll(asList(options));
+        JavaCompiler.CompilationTask task = ToolProvider.getSystemJavaCompiler().getTask(null, null, null, arguments, null, sources);
+        task.setProcessors(singletonList(processor));
+        assertTrue(task.call());
+        return output;
+    }
+
+    @AfterMethod
+    public void deleteDirectories() throws IOException {
+        for(Path directory : directories) try(Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+        directories.clear();
+    }
+
+}
@@ -0,0 +1,27 @@
+package fluent.cursor;
+
+import fluent.dsl.Dsl;
+import fluent.dsl.bdd.When;
+import fluent.dsl.bdd.then;
+import fluent.dsl.def.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static fluent.dsl.Dsl.Implementation.CURSOR;
+
+@Dsl(implementation = CURSOR)
+public interface CursorAutomation {
+
+    void injectOrder(@When String user, @injects String order, @into String destination);
+
+    void injectOrders(@When String user, @injects String[] orders, @in String destination);
+
+    void verifyOrder(@then String user, @mustSee String order, @in String destination);
+
+    void verifyOrder(@then String user, @mustSee String order, @then long timeout, TimeUnit unit);
+
+    void verifyTime(@then String user, @mustSee long value, @then long timeout, TimeUnit unit);
+
+    int count(@then String user, @only String order);
+
+}
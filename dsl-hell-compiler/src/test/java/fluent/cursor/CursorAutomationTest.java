@@ -0,0 +1,87 @@
+package fluent.cursor;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+public class CursorAutomationTest {
+
+    @Test
+    public void test() {
+        CursorAutomation mock = mock(CursorAutomation.class);
+        when(mock.count("U", "Order 1")).thenReturn(5);
+        CursorAutomationDsl dsl = CursorAutomationDsl.create(mock);
+        String[] orders = {"Order 1", "Order 2"};
+        dsl.When("U").injects("Order 1").into("dest");
+        dsl.Given("U").injects(orders).in("dest");
+        dsl.then("U").mustSee("Order 1").in("dest");
+        dsl.then("U").mustSee("Order 1").andThen(5, SECONDS);
+        dsl.andThen("U").mustSee(2).then(5, SECONDS);
+        assertEquals(dsl.then("U").only("Order 1"), 5);
+        verify(mock).injectOrder("U", "Order 1", "dest");
+        verify(mock).injectOrders("U", orders, "dest");
+        verify(mock).verifyOrder("U", "Order 1", "dest");
+        verify(mock).verifyOrder("U", "Order 1", 5, SECONDS);
+        verify(mock).verifyTime("U", 2, 5, SECONDS);
+    }
+
+    @Test
+    public void cursorIsReusedWithinThread() {
+        CursorAutomationDsl dsl = CursorAutomationDsl.create(mock(CursorAutomation.class));
+        assertSame(dsl.When("A").injects("Order 1"), dsl.then("B").mustSee("Order 2"));
+    }
+
+    @Test
+    public void cursorIsConfinedToThread() throws InterruptedException {
+        CursorAutomationDsl dsl = CursorAutomationDsl.create(mock(CursorAutomation.class));
+        AtomicReference<Object> other = new AtomicReference<>();
+        Thread thread = new Thread(() -> other.set(dsl.When("A")));
+        thread.start();
+        thread.join();
+        assertNotSame(dsl.When("A"), other.get());
+    }
+
+    @Test
+    public void staleStepFails() {
+        CursorAutomation mock = mock(CursorAutomation.class);
+        CursorAutomationDsl dsl = CursorAutomationDsl.create(mock);
+        CursorAutomationDsl.WhenString.InjectsString step = dsl.When("A").injects("Order 1");
+        dsl.then("B").mustSee("Order 2");
+        expectThrows(IllegalStateException.class, () -> step.into("dest"));
+        verifyZeroInteractions(mock);
+    }
+
+    @Test
+    public void staleStepInSameStateContinuesLatestSentence() {
+        CursorAutomation mock = mock(CursorAutomation.class);
+        CursorAutomationDsl dsl = CursorAutomationDsl.create(mock);
+        CursorAutomationDsl.WhenString.InjectsString step = dsl.When("A").injects("Order 1");
+        dsl.When("B").injects("Order 2");
+        step.into("dest");
+        verify(mock).injectOrder("B", "Order 2", "dest");
+        verifyNoMoreInteractions(mock);
+    }
+
+    @Test
+    public void finishedSentenceCannotBeContinued() {
+        CursorAutomationDsl dsl = CursorAutomationDsl.create(mock(CursorAutomation.class));
+        CursorAutomationDsl.WhenString.InjectsString step = dsl.When("A").injects("Order 1");
+        step.into("dest");
+        expectThrows(IllegalStateException.class, () -> step.into("dest"));
+    }
+
+    @Test
+    public void cursorDoesNotRetainArguments() {
+        CursorAutomationDsl dsl = CursorAutomationDsl.create(mock(CursorAutomation.class));
+        CursorAutomationDsl.Cursor cursor = (CursorAutomationDsl.Cursor) dsl.Given("A").injects(new String[] {"Order 1"});
+        cursor.in("dest");
+        assertNull(cursor.user);
+        assertNull(cursor.orders);
+        assertEquals(cursor.$state, 0);
+    }
+
+}
@@ -0,0 +1,52 @@
+package fluent.daemon;
+
+import fluent.compilation.CompilingTest;
+import fluent.dsl.daemon.DslDaemon;
+import fluent.dsl.processor.DslGenerator;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class DslDaemonTest extends CompilingTest {
+
+    private static void binding(Path root, String members) throws IOException {
+        Path file = root.resolve("fluent/daemon/source/Binding.java");
+        Files.createDirectories(file.getParent());
+        Files.write(file, binding("fluent.daemon.source", members).getBytes());
+    }
+
+    // Watch service events may be delayed or lost on some file systems, so don't let awaitChange() hang the build.
+    @Test(timeOut = 60_000)
+    public void onlyChangedDslIsRewritten() throws IOException, InterruptedException {
+        Path root = directory("dsl-hell-daemon-sources");
+        Path work = directory("dsl-hell-daemon-work");
+        Path output = directory("dsl-hell-daemon-output");
+        binding(root, "    public void inject(@injects String order, @into String destination) {}\n");
+        DslGenerator generator = new DslGenerator(asList(System.getProperty("java.class.path").split(File.pathSeparator)), work, output, Charset.defaultCharset(), 1, null);
+        try(DslDaemon daemon = new DslDaemon(singletonList(root), generator)) {
+            assertEquals(daemon.generate().written(), 1);
+            assertTrue(Files.isRegularFile(output.resolve("fluent/daemon/source/BindingDsl.java")));
+
+            binding(root, "    public void inject(@injects String order, @into String destination) { System.out.println(order); }\n");
+            assertTrue(daemon.awaitChange());
+            DslGenerator.Result result = daemon.generate();
+            assertEquals(result.generated(), 1);
+            assertEquals(result.written(), 0);
+
+            binding(root, "    public void inject(@injects String order, @into Integer destination) {}\n");
+            assertTrue(daemon.awaitChange());
+            assertEquals(daemon.generate().written(), 1);
+            assertTrue(new String(Files.readAllBytes(output.resolve("fluent/daemon/source/BindingDsl.java"))).contains("java.lang.Integer destination"));
+        }
+    }
+
+}
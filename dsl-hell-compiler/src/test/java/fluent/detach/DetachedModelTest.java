@@ -0,0 +1,73 @@
+package fluent.detach;
+
+import fluent.api.model.TypeModel;
+import fluent.api.model.impl.ModelFactoryImpl;
+import fluent.compilation.CompilingTest;
+import org.testng.annotations.Test;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.Collections.singletonList;
+import static org.testng.Assert.assertEquals;
+
+public class DetachedModelTest extends CompilingTest {
+
+    private static final String SOURCE = "package fluent.detach.source;\n" +
+            "public interface Binding {\n" +
+            "    void inject(String order, java.util.List<String> destinations);\n" +
+            "}\n";
+
+    @SupportedAnnotationTypes("*")
+    private static final class ModellingProcessor extends AbstractProcessor {
+        private final List<TypeModel<?>> models = new ArrayList<>();
+
+        @Override
+        public SourceVersion getSupportedSourceVersion() {
+            return SourceVersion.latestSupported();
+        }
+
+        @Override
+        public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+            if(roundEnv.processingOver())
+                return false;
+            ModelFactoryImpl factory = new ModelFactoryImpl(processingEnv.getElementUtils(), processingEnv.getTypeUtils());
+            TypeModel<?> binding = factory.type(processingEnv.getElementUtils().getTypeElement("fluent.detach.source.Binding"));
+            binding.methods().size();
+            models.add(binding);
+            models.add(factory.type(processingEnv.getElementUtils().getTypeElement("java.lang.String")));
+            factory.detach();
+            return false;
+        }
+    }
+
+    private List<TypeModel<?>> models() throws IOException {
+        ModellingProcessor processor = new ModellingProcessor();
+        compile(processor, singletonList(source("fluent.detach.source.Binding", SOURCE)), "-proc:only");
+        return processor.models;
+    }
+
+    @Test
+    public void resolvedMembersAreAvailableAfterDetach() throws IOException {
+        TypeModel<?> binding = models().get(0);
+        assertEquals(binding.fullName(), "fluent.detach.source.Binding");
+        assertEquals(binding.methods().size(), 1);
+        assertEquals(binding.methods().get(0).parameters().get(1).type().fullName(), "java.util.List<java.lang.String>");
+        assertEquals(binding.methods().get(0).parameters().get(1).type().rawType().fullName(), "java.util.List");
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void unresolvedMembersAreNotAvailableAfterDetach() throws IOException {
+        TypeModel<?> string = models().get(1);
+        assertEquals(string.fullName(), "java.lang.String");
+        string.methods().size();
+    }
+
+}
@@ -59,4 +59,14 @@ public class AutomationTest {
         verify(mock).verifyTime(2, HOURS);
         verify(mock).emptyMethod();
     }
+
+    @Test
+    public void testVarargs() {
+        Automation mock = mock(Automation.class);
+        AutomationDsl dsl = AutomationDsl.create(mock);
+        dsl.withApplication().mustSee(1, 2, 3).only();
+        dsl.withApplication().mustSee("Order 1", "Order 2").in("dest");
+        verify(mock).verifyVararg(1, 2, 3);
+        verify(mock).verifyArray(new String[] {"Order 1", "Order 2"}, "dest");
+    }
 }
@@ -0,0 +1,87 @@
+package fluent.incremental;
+
+import fluent.compilation.CompilingTest;
+import fluent.dsl.processor.DslAnnotationProcessor;
+import org.testng.annotations.Test;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+import static org.testng.Assert.assertEquals;
+
+public class IncrementalProcessingTest extends CompilingTest {
+
+    private static final String BINDING = "package fluent.incremental.source;\n" +
+            "@fluent.dsl.Dsl\n" +
+            "public interface Binding {\n" +
+            "    @interface injects {}\n" +
+            "    @interface into {}\n" +
+            "    void inject(@injects @fluent.dsl.Dsl Order order, @into String destination);\n" +
+            "    class Order {\n" +
+            "        public Order(String orderId, int quantity) {}\n" +
+            "    }\n" +
+            "}\n";
+
+    private final Map<String, List<String>> originatingElements = new LinkedHashMap<>();
+
+    @Test
+    public void processorIsRegisteredAsIsolating() throws IOException {
+        try(BufferedReader reader = new BufferedReader(new InputStreamReader(getClass().getResourceAsStream("/META-INF/gradle/incremental.annotation.processors")))) {
+            assertEquals(reader.readLine(), DslAnnotationProcessor.class.getName() + ",isolating");
+        }
+    }
+
+    @Test
+    public void everyGeneratedFileHasSingleOriginatingElement() throws IOException {
+        compile(new RecordingProcessor(), singletonList(source("fluent.incremental.source.Binding", BINDING)));
+        assertEquals(originatingElements.keySet(), new HashSet<>(asList("fluent.incremental.source.BindingDsl", "fluent.incremental.source.OrderWith")));
+        assertEquals(originatingElements.get("fluent.incremental.source.BindingDsl"), singletonList("fluent.incremental.source.Binding"));
+        assertEquals(originatingElements.get("fluent.incremental.source.OrderWith"), singletonList("order"));
+    }
+
+    private final class RecordingProcessor extends AbstractProcessor {
+        private final Processor processor = new DslAnnotationProcessor();
+
+        @Override
+        public synchronized void init(ProcessingEnvironment env) {
+            Filer filer = env.getFiler();
+            processor.init(proxy(ProcessingEnvironment.class, (proxy, method, args) -> method.getName().equals("getFiler") ? proxy(Filer.class, (p, m, a) -> {
+                if(m.getName().equals("createSourceFile"))
+                    originatingElements.put(a[0].toString(), Arrays.stream((Element[]) a[1]).map(Object::toString).collect(toList()));
+                return m.invoke(filer, a);
+            }) : method.invoke(env, args)));
+        }
+
+        @Override
+        public Set<String> getSupportedAnnotationTypes() {
+            return processor.getSupportedAnnotationTypes();
+        }
+
+        @Override
+        public SourceVersion getSupportedSourceVersion() {
+            return SourceVersion.latestSupported();
+        }
+
+        @Override
+        public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+            return processor.process(annotations, roundEnv);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+
+}
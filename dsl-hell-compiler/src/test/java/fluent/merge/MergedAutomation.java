@@ -0,0 +1,29 @@
+package fluent.merge;
+
+import fluent.dsl.Dsl;
+import fluent.dsl.def.*;
+
+import java.util.List;
+import java.util.Queue;
+
+@Dsl(mergeSteps = true)
+@withApplication
+public interface MergedAutomation<T> {
+
+    void verifyOrder(@mustSee String order, @in String destination);
+
+    void verifyArray(@mustSee String[] values, @in String target);
+
+    void verifyOrderWith(@injectsOrderWith String id, @mustSee String order, @in String destination);
+
+    @only void verifyNestedArray(@mustSee String[][] values);
+
+    @only void verifyGeneric(@mustSee List<String> strings);
+
+    @only void verifyElement(@mustSee T element);
+
+    <V> void injectQueue(@injects V value, @into Queue<V> queue);
+
+    <V> void injectList(@injects List<V> values, @into Queue<V> queue);
+
+}
@@ -0,0 +1,50 @@
+package fluent.merge;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+
+public class MergedStepsTest {
+
+    @Test
+    public void equivalentStepsAreMerged() throws NoSuchMethodException {
+        Class<?> steps = MergedAutomationDsl.WithApplication.class;
+        assertEquals(steps.getDeclaredClasses().length, 4);
+        assertEquals(steps.getMethod("mustSee", String[].class).getReturnType(), steps.getMethod("mustSee", String.class).getReturnType());
+        Class<?> nested = steps.getMethod("injectsOrderWith", String.class).getReturnType();
+        assertEquals(nested.getDeclaredClasses().length, 0);
+        assertEquals(nested.getMethod("mustSee", String.class).getReturnType(), steps.getMethod("mustSee", String.class).getReturnType());
+        assertEquals(steps.getMethod("mustSee", java.util.List.class).getReturnType(), steps.getMethod("mustSee", String[][].class).getReturnType());
+        assertEquals(steps.getMethod("mustSee", Object.class).getReturnType(), steps.getMethod("mustSee", String[][].class).getReturnType());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void sentencesKeepTheirImplementation() {
+        MergedAutomation<Integer> mock = mock(MergedAutomation.class);
+        MergedAutomationDsl<Integer> dsl = MergedAutomationDsl.create(mock);
+        Queue<String> queue = new ArrayDeque<>();
+        dsl.withApplication().mustSee("Order 1").in("dest");
+        dsl.withApplication().mustSee("Order 1", "Order 2").in("target");
+        dsl.withApplication().injectsOrderWith("id").mustSee("Order 7").in("dest");
+        dsl.withApplication().mustSee(singletonList("Order 3")).only();
+        dsl.withApplication().mustSee(5).only();
+        dsl.withApplication().injects("Order 4").into(queue);
+        dsl.withApplication().injects(asList("Order 5", "Order 6")).into(queue);
+        verify(mock).verifyOrder("Order 1", "dest");
+        verify(mock).verifyArray(new String[] {"Order 1", "Order 2"}, "target");
+        verify(mock).verifyOrderWith("id", "Order 7", "dest");
+        verify(mock).verifyGeneric(singletonList("Order 3"));
+        verify(mock).verifyElement(5);
+        verify(mock).injectQueue("Order 4", queue);
+        verify(mock).injectList(asList("Order 5", "Order 6"), queue);
+    }
+
+}
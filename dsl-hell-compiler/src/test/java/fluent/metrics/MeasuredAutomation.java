@@ -0,0 +1,14 @@
+package fluent.metrics;
+
+import fluent.dsl.Dsl;
+import fluent.dsl.def.*;
+
+@Dsl(metrics = true)
+@withApplication
+public interface MeasuredAutomation {
+
+    void injectOrder(@injects String order, @into String destination);
+
+    int count(@mustSee @only String value);
+
+}
@@ -0,0 +1,58 @@
+package fluent.metrics;
+
+import fluent.dsl.metrics.DslMetrics;
+import fluent.dsl.metrics.SentenceMetrics;
+import org.testng.annotations.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+public class MetricsTest {
+
+    @Test
+    public void testSentencesAreMeasured() throws Exception {
+        MeasuredAutomation mock = mock(MeasuredAutomation.class);
+        when(mock.count("A")).thenReturn(3);
+        doThrow(new IllegalStateException("Unavailable")).when(mock).injectOrder("B", "Queue");
+        DslMetrics metrics = MeasuredAutomationDsl.metrics();
+        metrics.reset();
+        MeasuredAutomationDsl dsl = MeasuredAutomationDsl.create(mock);
+
+        dsl.withApplication().injects("A").into("Queue");
+        assertEquals(dsl.withApplication().mustSee().only("A"), 3);
+        assertEquals(dsl.withApplication().mustSee().only("A"), 3);
+        expectThrows(IllegalStateException.class, () -> dsl.withApplication().injects("B").into("Queue"));
+
+        SentenceMetrics inject = metrics.sentences().get(0);
+        SentenceMetrics count = metrics.sentences().get(1);
+        assertEquals(inject.name(), "injectOrder(String, String)");
+        assertEquals(inject.invocations(), 2);
+        assertEquals(inject.errors(), 1);
+        assertEquals(count.invocations(), 2);
+        assertEquals(count.errors(), 0);
+        assertTrue(count.percentileNanos(99) >= count.percentileNanos(50));
+
+        Object invocations = ManagementFactory.getPlatformMBeanServer().getAttribute(new ObjectName("fluent.dsl:type=DslMetrics,name=\"fluent.metrics.MeasuredAutomationDsl\""), "Invocations");
+        assertNotNull(invocations);
+        assertEquals(metrics.getInvocations().get("count(String)"), Long.valueOf(2));
+    }
+
+    @Test
+    public void testHistogramBuckets() {
+        SentenceMetrics metrics = new SentenceMetrics("test");
+        for(int i = 0; i < 99; i++)
+            metrics.record(100);
+        metrics.record(5000);
+        assertEquals(metrics.invocations(), 100);
+        assertEquals(metrics.meanNanos(), 149);
+        assertEquals(metrics.percentileNanos(50), 127);
+        assertEquals(metrics.percentileNanos(99), 127);
+        assertEquals(metrics.percentileNanos(100), 8191);
+        assertEquals(metrics.histogram()[7], 99);
+    }
+
+}
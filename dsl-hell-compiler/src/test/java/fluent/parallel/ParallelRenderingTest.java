@@ -0,0 +1,54 @@
+package fluent.parallel;
+
+import fluent.compilation.CompilingTest;
+import fluent.dsl.processor.DslAnnotationProcessor;
+import org.testng.annotations.Test;
+
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.testng.Assert.assertEquals;
+
+public class ParallelRenderingTest extends CompilingTest {
+
+    private static final int BINDINGS = 20;
+
+    private static JavaFileObject binding(int index) {
+        return source("fluent.parallel.source.Binding" + index, "package fluent.parallel.source;\n" +
+                "@fluent.dsl.Dsl\n" +
+                "public interface Binding" + index + " {\n" +
+                "    @interface injects {}\n" +
+                "    @interface into {}\n" +
+                "    @interface mustSee {}\n" +
+                "    void inject(@injects String order, @into String destination);\n" +
+                "    void verify(@mustSee String order, @into String destination);\n" +
+                "}\n");
+    }
+
+    private Map<String, String> generate(String... options) throws IOException {
+        List<JavaFileObject> sources = new ArrayList<>();
+        for(int i = 0; i < BINDINGS; i++)
+            sources.add(binding(i));
+        Path output = compile(new DslAnnotationProcessor(), sources, options);
+        Map<String, String> generated = new TreeMap<>();
+        try(Stream<Path> files = Files.walk(output)) {
+            for(Path file : files.filter(path -> path.toString().endsWith(".java")).collect(toList()))
+                generated.put(output.relativize(file).toString(), new String(Files.readAllBytes(file)));
+        }
+        return generated;
+    }
+
+    @Test
+    public void parallelRenderingGeneratesSameSources() throws IOException {
+        Map<String, String> sequential = generate();
+        Map<String, String> parallel = generate("-A" + DslAnnotationProcessor.PARALLELISM + "=4");
+        assertEquals(sequential.size(), BINDINGS);
+        assertEquals(parallel, sequential);
+    }
+
+}
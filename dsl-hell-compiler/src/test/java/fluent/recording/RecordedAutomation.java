@@ -0,0 +1,27 @@
+package fluent.recording;
+
+import fluent.dsl.Dsl;
+import fluent.dsl.def.*;
+
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+@Dsl(recording = true)
+@withApplication
+public interface RecordedAutomation<T> {
+
+    void injectOrder(@injects T order, @into String destination);
+
+    void verifyTime(@mustSee long value, TimeUnit unit);
+
+    void verifyRatio(@mustSee double ratio, boolean strict, char unit);
+
+    <V> void verifyQueue(@only V value, @in Queue<V> queue);
+
+    int count(@mustSee @only String... values);
+
+    long elapsed(@mustSee @in TimeUnit unit);
+
+    char unit(@mustSee @into String value);
+
+}
@@ -0,0 +1,64 @@
+package fluent.recording;
+
+import org.mockito.InOrder;
+import org.testng.annotations.Test;
+
+import java.util.LinkedList;
+import java.util.Queue;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.assertEquals;
+
+public class RecordingTest {
+
+    @Test
+    public void testReplay() {
+        Queue<Integer> queue = new LinkedList<>();
+        RecordedAutomationDsl.Recording<String> recording = new RecordedAutomationDsl.Recording<>();
+        RecordedAutomationDsl<String> dsl = RecordedAutomationDsl.create(recording);
+        dsl.withApplication().injects("A").into("Queue");
+        dsl.withApplication().mustSee(5L, SECONDS);
+        dsl.withApplication().mustSee(0.5, true, 'x');
+        dsl.withApplication().only(1).in(queue);
+        assertEquals(dsl.withApplication().mustSee().only("B", "C"), 0);
+
+        for(int i = 0; i < 2; i++) {
+            RecordedAutomation<String> mock = mock(RecordedAutomation.class);
+            assertEquals(recording.replay(mock), 5);
+            InOrder order = inOrder(mock);
+            order.verify(mock).injectOrder("A", "Queue");
+            order.verify(mock).verifyTime(5L, SECONDS);
+            order.verify(mock).verifyRatio(0.5, true, 'x');
+            order.verify(mock).verifyQueue(1, queue);
+            order.verify(mock).count("B", "C");
+            verifyNoMoreInteractions(mock);
+        }
+    }
+
+    @Test
+    public void testBufferGrowsAndClears() {
+        RecordedAutomationDsl.Recording<String> recording = new RecordedAutomationDsl.Recording<>();
+        RecordedAutomationDsl<String> dsl = RecordedAutomationDsl.create(recording);
+        for(int i = 0; i < 100; i++)
+            dsl.withApplication().mustSee(i, SECONDS);
+        RecordedAutomation<String> mock = mock(RecordedAutomation.class);
+        assertEquals(recording.replay(mock), 100);
+        verify(mock).verifyTime(99L, SECONDS);
+        recording.clear();
+        assertEquals(recording.replay(mock), 0);
+    }
+
+    @Test
+    public void testRecordingReturnsDefaultValues() {
+        RecordedAutomationDsl.Recording<String> recording = new RecordedAutomationDsl.Recording<>();
+        RecordedAutomationDsl<String> dsl = RecordedAutomationDsl.create(recording);
+        assertEquals(dsl.withApplication().mustSee().in(SECONDS), 0L);
+        assertEquals(dsl.withApplication().mustSee().into("A"), '\0');
+        RecordedAutomation<String> mock = mock(RecordedAutomation.class);
+        assertEquals(recording.replay(mock), 2);
+        verify(mock).elapsed(SECONDS);
+        verify(mock).unit("A");
+    }
+
+}
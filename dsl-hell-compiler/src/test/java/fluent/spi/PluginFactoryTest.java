@@ -0,0 +1,34 @@
+package fluent.spi;
+
+import fluent.api.model.ModelFactory;
+import fluent.dsl.processor.DslAnnotationProcessorPlugin;
+import fluent.dsl.processor.DslAnnotationProcessorPluginFactory;
+import fluent.dsl.processor.KeywordIndex;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertSame;
+
+public class PluginFactoryTest {
+
+    private final ModelFactory modelFactory = mock(ModelFactory.class);
+    private final DslAnnotationProcessorPlugin plugin = mock(DslAnnotationProcessorPlugin.class);
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void factoryImplementingPreviousMethodIsStillSupported() {
+        DslAnnotationProcessorPluginFactory factory = new DslAnnotationProcessorPluginFactory() {
+            @Override public DslAnnotationProcessorPlugin createPlugin(ModelFactory factory) {
+                assertSame(factory, modelFactory);
+                return plugin;
+            }
+        };
+        assertSame(factory.createPlugin(modelFactory, new KeywordIndex(null)), plugin);
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void factoryImplementingNoMethodFails() {
+        new DslAnnotationProcessorPluginFactory() {}.createPlugin(modelFactory, new KeywordIndex(null));
+    }
+
+}
@@ -0,0 +1,25 @@
+package fluent.steps;
+
+import fluent.dsl.Dsl;
+import fluent.dsl.def.*;
+
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+import static fluent.dsl.Dsl.Implementation.STEP_CLASSES;
+
+@Dsl(implementation = STEP_CLASSES)
+@withApplication
+public interface StepAutomation<T> {
+
+    void injectOrder(@injects T order, @into String destination);
+
+    void verifyOrder(@mustSee T order, @in String destination);
+
+    void verifyTime(@mustSee long value, TimeUnit unit);
+
+    <V> void verifyQueue(@only V value, @in Queue<V> queue);
+
+    int count(@mustSee @only String value);
+
+}
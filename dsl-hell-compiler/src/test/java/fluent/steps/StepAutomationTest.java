@@ -0,0 +1,41 @@
+package fluent.steps;
+
+import org.testng.annotations.Test;
+
+import java.util.LinkedList;
+import java.util.Queue;
+
+import static java.util.concurrent.TimeUnit.HOURS;
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+public class StepAutomationTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void test() {
+        StepAutomation<String> mock = mock(StepAutomation.class);
+        when(mock.count("A")).thenReturn(5);
+        StepAutomationDsl<String> dsl = StepAutomationDsl.create(mock);
+        Queue<Integer> queue = new LinkedList<>();
+        dsl.withApplication().injects("Order 1").into("dest");
+        dsl.withApplication().mustSee("Order 1").in("dest");
+        dsl.withApplication().mustSee(2, HOURS);
+        dsl.withApplication().only(1).in(queue);
+        assertEquals(dsl.withApplication().mustSee().only("A"), 5);
+        verify(mock).injectOrder("Order 1", "dest");
+        verify(mock).verifyOrder("Order 1", "dest");
+        verify(mock).verifyTime(2, HOURS);
+        verify(mock).verifyQueue(1, queue);
+    }
+
+    @Test
+    public void stepsAreNamedClasses() {
+        StepAutomationDsl<String> dsl = StepAutomationDsl.create(null);
+        assertFalse(dsl.getClass().isAnonymousClass());
+        assertFalse(dsl.withApplication().getClass().isAnonymousClass());
+        assertFalse(dsl.withApplication().injects("Order 1").getClass().isAnonymousClass());
+    }
+
+}
@@ -0,0 +1,14 @@
+package fluent.jfr;
+
+import fluent.dsl.Dsl;
+import fluent.dsl.def.*;
+
+@Dsl(metrics = true, jfrEvents = true)
+@withApplication
+public interface EventAutomation {
+
+    void injectOrder(@injects String order, @into String destination);
+
+    int count(@mustSee @only String value);
+
+}
@@ -0,0 +1,44 @@
+package fluent.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+
+public class JfrEventsTest {
+
+    @Test
+    public void testSentencesEmitEvents() throws IOException {
+        EventAutomationDsl dsl = EventAutomationDsl.create(mock(EventAutomation.class));
+        dsl.withApplication().injects("Not recorded").into("Queue");
+        Path file = Files.createTempFile("dsl", ".jfr");
+        try(Recording recording = new Recording()) {
+            recording.start();
+            dsl.withApplication().injects("A").into("Queue");
+            dsl.withApplication().mustSee().only("B");
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().startsWith(EventAutomationDsl.class.getName()))
+                .collect(toList());
+        Files.delete(file);
+        assertEquals(events.size(), 2);
+        assertEquals(events.get(0).getEventType().getName(), EventAutomationDsl.InjectOrderEvent.class.getName());
+        assertEquals(events.get(0).getString("sentence"), "injectOrder(String, String)");
+        assertEquals(events.get(0).getString("order"), "A");
+        assertEquals(events.get(0).getString("destination"), "Queue");
+        assertEquals(events.get(1).getString("sentence"), "count(String)");
+        assertEquals(events.get(1).getString("value"), "B");
+    }
+
+}
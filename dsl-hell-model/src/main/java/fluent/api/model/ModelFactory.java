@@ -4,6 +4,7 @@ import javax.lang.model.element.Element;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 import java.util.Collection;
 import java.util.List;
@@ -32,6 +33,8 @@ public interface ModelFactory {
 
     TypeModel<?> type(TypeMirror typeMirror);
 
+    PrimitiveModel primitive(TypeKind kind);
+
     VarModel parameter(VariableElement parameterModel);
 
     MethodModel method(ExecutableElement method);
@@ -11,5 +11,7 @@ public interface ModifiersModel {
 
     boolean isDefault();
 
+    boolean isFinal();
+
     Set<Modifier> keywords();
 }
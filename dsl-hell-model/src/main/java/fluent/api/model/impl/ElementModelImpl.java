@@ -11,9 +11,9 @@ import java.util.Map;
 
 public class ElementModelImpl implements ElementModel {
 
-    private final List<AnnotationModel> annotations = new ArrayList<>();
     private final ModifiersModel modifiers;
-    private final Map<String, Object> metadata = new HashMap<>();
+    private List<AnnotationModel> annotations;
+    private Map<String, Object> metadata;
 
     public ElementModelImpl(ModifiersModel modifiers) {
         this.modifiers = modifiers;
@@ -21,6 +21,8 @@ public class ElementModelImpl implements ElementModel {
 
     @Override
     public List<AnnotationModel> annotations() {
+        if(annotations == null)
+            annotations = new ArrayList<>();
         return annotations;
     }
 
@@ -31,6 +33,8 @@ public class ElementModelImpl implements ElementModel {
 
     @Override
     public Map<String, Object> metadata() {
+        if(metadata == null)
+            metadata = new HashMap<>();
         return metadata;
     }
 
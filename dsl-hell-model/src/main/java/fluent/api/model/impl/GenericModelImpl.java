@@ -6,7 +6,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 public abstract class GenericModelImpl<T> extends ElementModelImpl implements GenericModel<T> {
-    private final List<TypeModel<?>> typeParameters = new ArrayList<>();
+    private List<TypeModel<?>> typeParameters;
 
     public GenericModelImpl(ModifiersModel modifiers) {
         super(modifiers);
@@ -14,6 +14,8 @@ public abstract class GenericModelImpl<T> extends ElementModelImpl implements Ge
 
     @Override
     public List<TypeModel<?>> typeParameters() {
+        if(typeParameters == null)
+            typeParameters = new ArrayList<>();
         return typeParameters;
     }
 
@@ -30,11 +30,15 @@ package fluent.api.model.impl;
 
 import java.util.function.Supplier;
 
+/**
+ * Value computed on first access. The supplier is dropped once the value is resolved, so objects it captured (e.g.
+ * javac elements) are not kept reachable by the value.
+ */
 public final class Lazy<T> {
 
     private T value;
 
-    private final Supplier<T> supplier;
+    private Supplier<T> supplier;
 
     private Lazy(Supplier<T> supplier) {
         this.supplier = supplier;
@@ -49,9 +53,22 @@ public final class Lazy<T> {
     }
 
     public T get() {
-        if(value == null)
+        if(supplier != null) {
             value = supplier.get();
+            supplier = null;
+        }
         return value;
     }
 
+    /**
+     * Drops the supplier also if the value wasn't resolved yet. Any later access to such value fails, as it could only
+     * be resolved from elements of a finished processing round.
+     */
+    public void detach() {
+        if(supplier != null)
+            supplier = () -> {
+                throw new IllegalStateException("Lazy value was detached before it was resolved.");
+            };
+    }
+
 }
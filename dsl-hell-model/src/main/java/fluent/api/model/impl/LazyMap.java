@@ -6,9 +6,12 @@ import java.util.function.Supplier;
 public class LazyMap<K, V> implements Map<K, V> {
     private final Lazy<Map<K, V>> lazy;
 
+    public LazyMap(Lazy<Map<K, V>> lazy) {
+        this.lazy = lazy;
+    }
 
-    public LazyMap(Supplier<Map<K, V>> lazy) {
-        this.lazy = Lazy.lazy(lazy);
+    public LazyMap(Supplier<Map<K, V>> supplier) {
+        this(Lazy.lazy(supplier));
     }
 
     private Map<K, V> get() {
@@ -7,6 +7,7 @@ import javax.lang.model.type.*;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 import java.util.*;
+import java.util.function.Supplier;
 
 import static java.util.Arrays.asList;
 import static java.util.Objects.isNull;
@@ -20,12 +21,47 @@ public class ModelFactoryImpl implements ModelFactory, TypeVisitor<TypeModel<?>,
 
     private final Elements elements;
     private final Types types;
+    private final Map<TypeKind, PrimitiveModel> primitives = new EnumMap<>(TypeKind.class);
+    private final Map<String, TypeModel<?>> typeVariables = new HashMap<>();
+    private final Map<Element, TypeModel<?>> rawTypes = new HashMap<>();
+    private final Map<String, TypeModel<?>> declaredTypes = new HashMap<>();
+    private final Map<TypeModel<?>, TypeModel<?>> arrayTypes = new IdentityHashMap<>();
+    private final List<Lazy<?>> lazyValues = new ArrayList<>();
 
     public ModelFactoryImpl(Elements elements, Types types) {
         this.elements = elements;
         this.types = types;
     }
 
+    /**
+     * Models of declared types are cached, as the same types are visited for every method and parameter using them.
+     * Cached models refer to elements of current processing round, so the cache needs to be cleared before a new
+     * round starts. Primitive types and type variables are modelled by name only, so they are kept.
+     */
+    public void clearCache() {
+        rawTypes.clear();
+        declaredTypes.clear();
+        arrayTypes.clear();
+    }
+
+    /**
+     * Ends the model lifecycle of current processing round. Models created so far keep what was already resolved from
+     * javac elements (names, type arguments, and members, which were accessed), but drop all references to elements,
+     * so they don't keep javac's symbol graph reachable, and can be safely used from other threads. Members, which
+     * were not resolved yet, are not available anymore.
+     */
+    public void detach() {
+        lazyValues.forEach(Lazy::detach);
+        lazyValues.clear();
+        clearCache();
+    }
+
+    private <T> Lazy<T> lazy(Supplier<T> supplier) {
+        Lazy<T> lazy = Lazy.lazy(supplier);
+        lazyValues.add(lazy);
+        return lazy;
+    }
+
     @Override
     public VarModel parameter(TypeModel model, String parameterName) {
         return new VarModelImpl(modifiers(), model, parameterName);
@@ -80,6 +116,16 @@ public class ModelFactoryImpl implements ModelFactory, TypeVisitor<TypeModel<?>,
         return visit(typeMirror);
     }
 
+    @Override
+    public PrimitiveModel primitive(TypeKind kind) {
+        PrimitiveModel model = primitives.get(kind);
+        if(isNull(model)) {
+            model = new PrimitiveModelImpl(kind.name().toLowerCase(), kind);
+            primitives.put(kind, model);
+        }
+        return model;
+    }
+
     @Override
     public VarModel parameter(VariableElement model) {
         return new VarModelImpl(modifiers(model.getModifiers()), visit(model.asType()), model.getSimpleName().toString());
@@ -101,7 +147,10 @@ public class ModelFactoryImpl implements ModelFactory, TypeVisitor<TypeModel<?>,
         if(method.getModifiers().contains(STATIC)) {
             return new StaticMethodModelImpl(modifiers, name, parameters).returnType(returnType).owner(owner);
         }
-        return new MethodModelImpl(modifiers, name, parameters, false).returnType(returnType).owner(owner);
+        MethodModel model = new MethodModelImpl(modifiers, name, parameters, false).returnType(returnType).owner(owner);
+        if(method.isVarArgs())
+            model.metadata().put("varargs", true);
+        return model;
     }
 
     @Override
@@ -136,7 +185,7 @@ public class ModelFactoryImpl implements ModelFactory, TypeVisitor<TypeModel<?>,
     }
 
     private TypeModel<?> visitDefault(TypeMirror t) {
-        return new PrimitiveModelImpl(t.toString(), t.getKind());
+        return primitive(t.getKind());
     }
 
     @Override
@@ -160,20 +209,108 @@ public class ModelFactoryImpl implements ModelFactory, TypeVisitor<TypeModel<?>,
     @Override
     public TypeModel<?> visitArray(ArrayType t, Element element) {
         TypeModel component = visit(t.getComponentType());
-        return new ArrayModelImpl(
-                modifiers(PUBLIC, STATIC),
-                component.packageName(),
-                component.simpleName() + "[]",
-                t.toString(),
-                t.getKind()).componentType(component);
+        TypeModel<?> model = arrayTypes.get(component);
+        if(isNull(model)) {
+            model = new ArrayModelImpl(
+                    modifiers(PUBLIC, STATIC),
+                    component.packageName(),
+                    component.simpleName() + "[]",
+                    t.toString(),
+                    t.getKind()).componentType(component);
+            arrayTypes.put(component, model);
+        }
+        return model;
     }
 
+    /**
+     * Declared types are modelled once per element. Parameterized types share the raw model's methods and fields, and
+     * differ only in names and type arguments. Annotated types and inner types of parameterized types keep the name
+     * javac prints for them, so they are modelled separately.
+     */
     @Override
     public TypeModel<?> visitDeclared(DeclaredType t, Element element) {
-        List<TypeModel<?>> s = new LazyList<>(() -> t.getTypeArguments().stream().map(this::visit).collect(toList()));
+        if(!t.getAnnotationMirrors().isEmpty() || isParameterized(t.getEnclosingType()))
+            return cached(t.toString(), () -> declared(t, element));
+        TypeModel<?> raw = raw((TypeElement) element);
+        if(t.getTypeArguments().isEmpty())
+            return raw;
+        List<TypeModel<?>> arguments = t.getTypeArguments().stream().map(this::visit).collect(toList());
+        String names = t.getTypeArguments().stream().map(this::name).collect(joining(",", "<", ">"));
+        return cached(raw.fullName() + names, () -> parameterized(raw, names, arguments));
+    }
+
+    private TypeModel<?> raw(TypeElement element) {
+        TypeModel<?> model = rawTypes.get(element);
+        if(isNull(model)) {
+            model = declared(element);
+            rawTypes.put(element, model);
+        }
+        return model;
+    }
+
+    private TypeModel<?> cached(String key, Supplier<TypeModel<?>> supplier) {
+        TypeModel<?> model = declaredTypes.get(key);
+        if(isNull(model)) {
+            model = supplier.get();
+            declaredTypes.put(key, model);
+        }
+        return model;
+    }
+
+    private static boolean isParameterized(TypeMirror t) {
+        return t.getKind() == DECLARED && !((DeclaredType) t).getTypeArguments().isEmpty();
+    }
+
+    private String name(TypeMirror argument) {
+        if(argument.getKind() != TypeKind.WILDCARD)
+            return visit(argument).fullName();
+        WildcardType wildcard = (WildcardType) argument;
+        if(wildcard.getExtendsBound() != null)
+            return "? extends " + visit(wildcard.getExtendsBound()).fullName();
+        if(wildcard.getSuperBound() != null)
+            return "? super " + visit(wildcard.getSuperBound()).fullName();
+        return "?";
+    }
+
+    private TypeModel<?> declared(TypeElement element) {
         String packageName = elements.getPackageOf(element).getQualifiedName().toString();
-        List<MethodModel> m = new LazyList<>(() -> methodsIn(element.getEnclosedElements()).stream().map(this::method).collect(toList()));
-        Map<String, VarModel> v = new LazyMap<>(() -> fieldsIn(element.getEnclosedElements()).stream().map(this::parameter).collect(toMap(VarModel::name, e -> e)));
+        List<MethodModel> m = new LazyList<>(lazy(() -> methodsIn(element.getEnclosedElements()).stream().map(this::method).collect(toList())));
+        Map<String, VarModel> v = new LazyMap<>(lazy(() -> fieldsIn(element.getEnclosedElements()).stream().map(this::parameter).collect(toMap(VarModel::name, e -> e))));
+        ModifiersModel modifiers = modifiers(element.getModifiers());
+        String simpleName = element.getSimpleName().toString();
+        String fullName = element.getQualifiedName().toString();
+        return (element.getKind() == ElementKind.INTERFACE
+                ? new InterfaceModelImpl(modifiers, packageName, simpleName, fullName, DECLARED)
+                : new ClassModelImpl(modifiers, packageName, simpleName, fullName, DECLARED)
+        ).methods(m).fields(v);
+    }
+
+    private TypeModel<?> parameterized(TypeModel<?> raw, String names, List<TypeModel<?>> arguments) {
+        return (raw instanceof InterfaceModel ? new InterfaceModelImpl(
+                raw.modifiers(),
+                raw.packageName(),
+                raw.simpleName() + names,
+                raw.fullName() + names,
+                DECLARED,
+                arguments,
+                (InterfaceModel) raw
+        )
+                : new ClassModelImpl(
+                raw.modifiers(),
+                raw.packageName(),
+                raw.simpleName() + names,
+                raw.fullName() + names,
+                DECLARED,
+                arguments,
+                (ClassModel) raw
+        )).methods(raw.methods()).fields(raw.fields());
+    }
+
+    private TypeModel<?> declared(DeclaredType t, Element element) {
+        List<TypeModel<?>> s = new LazyList<>(lazy(() -> t.getTypeArguments().stream().map(this::visit).collect(toList())));
+        String packageName = elements.getPackageOf(element).getQualifiedName().toString();
+        List<MethodModel> m = new LazyList<>(lazy(() -> methodsIn(element.getEnclosedElements()).stream().map(this::method).collect(toList())));
+        Map<String, VarModel> v = new LazyMap<>(lazy(() -> fieldsIn(element.getEnclosedElements()).stream().map(this::parameter).collect(toMap(VarModel::name, e -> e))));
         ModifiersModel modifiers = modifiers(element.getModifiers());
 
         String fullName = t.toString();
@@ -211,7 +348,13 @@ public class ModelFactoryImpl implements ModelFactory, TypeVisitor<TypeModel<?>,
 
     @Override
     public TypeModel<?> visitTypeVariable(TypeVariable t, Element typeElement) {
-        return visitDefault(t);
+        String name = t.toString();
+        TypeModel<?> model = typeVariables.get(name);
+        if(isNull(model)) {
+            model = new PrimitiveModelImpl(name, t.getKind());
+            typeVariables.put(name, model);
+        }
+        return model;
     }
 
     @Override
@@ -4,13 +4,13 @@ import fluent.api.model.ModifiersModel;
 
 import javax.lang.model.element.Modifier;
 import java.util.Collection;
-import java.util.LinkedHashSet;
+import java.util.EnumSet;
 import java.util.Set;
 
 import static javax.lang.model.element.Modifier.*;
 
 public class ModifiersModelImpl implements ModifiersModel {
-    private Set<Modifier> modifiers = new LinkedHashSet<>();
+    private final Set<Modifier> modifiers = EnumSet.noneOf(Modifier.class);
 
     public ModifiersModelImpl(Collection<Modifier> modifiers) {
         this.modifiers.addAll(modifiers);
@@ -31,6 +31,11 @@ public class ModifiersModelImpl implements ModifiersModel {
         return modifiers.contains(DEFAULT);
     }
 
+    @Override
+    public boolean isFinal() {
+        return modifiers.contains(FINAL);
+    }
+
     @Override
     public Set<Modifier> keywords() {
         return modifiers;
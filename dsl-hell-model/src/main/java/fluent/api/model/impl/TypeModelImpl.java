@@ -17,10 +17,10 @@ public abstract class TypeModelImpl<T extends TypeModel<T>> extends GenericModel
     private final TypeKind kind;
     private final T rawType;
     private TypeModel<?> componentType;
-    private Map<String, VarModel> fields = new LinkedHashMap<>();
-    private List<MethodModel> methods = new ArrayList<>();
-    private List<InterfaceModel> interfaces = new ArrayList<>();
-    private final List<TypeModel<?>> nestedClasses = new ArrayList<>();
+    private Map<String, VarModel> fields;
+    private List<MethodModel> methods;
+    private List<InterfaceModel> interfaces;
+    private List<TypeModel<?>> nestedClasses;
 
     public TypeModelImpl(ModifiersModel modifiers, String packageName, String simpleName, String fullName, TypeKind kind) {
         super(modifiers);
@@ -38,7 +38,8 @@ public abstract class TypeModelImpl<T extends TypeModel<T>> extends GenericModel
         this.fullName = fullName;
         this.kind = kind;
         this.rawType = rawType;
-        this.typeParameters().addAll(typeParameters);
+        if(!typeParameters.isEmpty())
+            this.typeParameters().addAll(typeParameters);
     }
 
     protected abstract T t();
@@ -86,6 +87,8 @@ public abstract class TypeModelImpl<T extends TypeModel<T>> extends GenericModel
 
     @Override
     public List<MethodModel> methods() {
+        if(methods == null)
+            methods = new ArrayList<>();
         return methods;
     }
 
@@ -97,6 +100,8 @@ public abstract class TypeModelImpl<T extends TypeModel<T>> extends GenericModel
 
     @Override
     public Map<String, VarModel> fields() {
+        if(fields == null)
+            fields = new LinkedHashMap<>();
         return fields;
     }
 
@@ -108,11 +113,15 @@ public abstract class TypeModelImpl<T extends TypeModel<T>> extends GenericModel
 
     @Override
     public List<InterfaceModel> interfaces() {
+        if(interfaces == null)
+            interfaces = new ArrayList<>();
         return interfaces;
     }
 
     @Override
     public List<TypeModel<?>> types() {
+        if(nestedClasses == null)
+            nestedClasses = new ArrayList<>();
         return nestedClasses;
     }
 
@@ -0,0 +1,143 @@
+package fluent.dsl.maven;
+
+import fluent.dsl.processor.DslAnnotationProcessor;
+import fluent.dsl.processor.DslGenerator;
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Generates DSL sources of bindings in the project sources without compiling them. Generation is skipped completely,
+ * if no source, classpath element or parameter of the goal changed since last run, and unchanged bindings are served
+ * from the generation cache. Generated files are only rewritten if their content changed, so they don't trigger
+ * recompilation.
+ */
+@Mojo(name = "generate", defaultPhase = LifecyclePhase.GENERATE_SOURCES, requiresDependencyResolution = ResolutionScope.COMPILE, threadSafe = true)
+public class GenerateMojo extends AbstractMojo {
+
+    @Parameter(defaultValue = "${project}", readonly = true, required = true)
+    private MavenProject project;
+
+    @Parameter(defaultValue = "${project.build.sourceDirectory}", required = true)
+    private File sourceDirectory;
+
+    @Parameter(defaultValue = "${project.build.directory}/generated-sources/dsl", required = true)
+    private File outputDirectory;
+
+    @Parameter(defaultValue = "${project.build.directory}/dsl-hell", required = true)
+    private File workDirectory;
+
+    @Parameter(defaultValue = "${project.build.sourceEncoding}")
+    private String encoding;
+
+    @Parameter(property = "dsl.parallelism", defaultValue = "1")
+    private int parallelism;
+
+    @Parameter(property = "dsl.skip", defaultValue = "false")
+    private boolean skip;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if(skip) {
+            getLog().info("DSL generation skipped.");
+            return;
+        }
+        project.addCompileSourceRoot(outputDirectory.getPath());
+        try {
+            List<File> sources = DslGenerator.sources(sourceDirectory.toPath());
+            List<String> classpath = new ArrayList<>(project.getCompileClasspathElements());
+            classpath.remove(project.getBuild().getOutputDirectory());
+            Charset charset = encoding == null ? Charset.defaultCharset() : Charset.forName(encoding);
+            Path stamp = workDirectory.toPath().resolve("generate.stamp");
+            String inputs = inputs(parameters(charset), sources, classpath);
+            if(upToDate(stamp, inputs, outputDirectory, sources, classpath)) {
+                getLog().info("DSL is up to date.");
+                return;
+            }
+            try(DslGenerator generator = new DslGenerator(classpath, workDirectory.toPath(), outputDirectory.toPath(), charset, parallelism, this::report)) {
+                DslGenerator.Result result = generator.generate(sources);
+                if(!result.success())
+                    throw new MojoFailureException("DSL generation failed. See errors above.");
+                getLog().info(result.toString());
+            }
+            Files.write(stamp, inputs.getBytes(UTF_8));
+        } catch (IOException | DependencyResolutionRequiredException | IllegalStateException e) {
+            throw new MojoExecutionException("Unable to generate DSL: " + e, e);
+        }
+    }
+
+    private void report(Diagnostic<? extends JavaFileObject> diagnostic) {
+        String message = diagnostic.getSource() == null
+                ? diagnostic.getMessage(null)
+                : diagnostic.getSource().getName() + ":[" + diagnostic.getLineNumber() + "] " + diagnostic.getMessage(null);
+        switch (diagnostic.getKind()) {
+            case ERROR:
+                getLog().error(message);
+                break;
+            case WARNING:
+            case MANDATORY_WARNING:
+                getLog().warn(message);
+                break;
+            default:
+                getLog().debug(message);
+        }
+    }
+
+    private List<String> parameters(Charset charset) {
+        return asList(
+                "processor=" + DslAnnotationProcessor.class.getProtectionDomain().getCodeSource().getLocation(),
+                "sourceDirectory=" + sourceDirectory,
+                "outputDirectory=" + outputDirectory,
+                "workDirectory=" + workDirectory,
+                "encoding=" + charset.name(),
+                "parallelism=" + parallelism
+        );
+    }
+
+    static boolean upToDate(Path stamp, String inputs, File outputDirectory, List<File> sources, List<String> classpath) throws IOException {
+        if(!Files.isRegularFile(stamp) || !outputDirectory.isDirectory() || !inputs.equals(new String(Files.readAllBytes(stamp), UTF_8)))
+            return false;
+        long time = Files.getLastModifiedTime(stamp).toMillis();
+        return sources.stream().allMatch(file -> file.lastModified() <= time) && classpath.stream().map(File::new).allMatch(file -> newest(file) <= time);
+    }
+
+    private static long newest(File file) {
+        if(!file.isDirectory())
+            return file.lastModified();
+        try(Stream<Path> files = Files.walk(file.toPath())) {
+            return files.mapToLong(path -> path.toFile().lastModified()).max().orElse(0L);
+        } catch (IOException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    static String inputs(List<String> parameters, List<File> sources, List<String> classpath) {
+        return Stream.of(
+                parameters.stream(),
+                sources.stream().map(File::getPath),
+                classpath.stream()
+        ).flatMap(stream -> stream).collect(joining("\n"));
+    }
+
+}
@@ -0,0 +1,118 @@
+package fluent.dsl.maven;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static fluent.dsl.maven.GenerateMojo.inputs;
+import static fluent.dsl.maven.GenerateMojo.upToDate;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+public class GenerateMojoTest {
+
+    // Directories of the fixture are modified now, so the stamp must be newer.
+    private static final long STAMP_TIME = System.currentTimeMillis() + 60_000;
+
+    private Path root;
+    private Path stamp;
+    private File output;
+    private List<File> sources;
+    private List<String> classpath;
+    private List<String> parameters;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("dsl-hell-plugin");
+        output = Files.createDirectory(root.resolve("output")).toFile();
+        sources = singletonList(file("src/Binding.java", STAMP_TIME - 120_000).toFile());
+        classpath = asList(file("lib/api.jar", STAMP_TIME - 120_000).toString(), file("classes/fluent/Api.class", STAMP_TIME - 120_000).getParent().getParent().toString());
+        parameters = asList("encoding=UTF-8", "parallelism=1");
+        stamp = root.resolve("generate.stamp");
+        Files.write(stamp, inputs(parameters, sources, classpath).getBytes(UTF_8));
+        Files.setLastModifiedTime(stamp, FileTime.fromMillis(STAMP_TIME));
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        try(Stream<Path> files = Files.walk(root)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private Path file(String name, long time) throws IOException {
+        Path file = root.resolve(name);
+        Files.createDirectories(file.getParent());
+        Files.write(file, name.getBytes(UTF_8));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(time));
+        return file;
+    }
+
+    @Test
+    public void unchangedInputsAreUpToDate() throws IOException {
+        assertTrue(upToDate(stamp, inputs(parameters, sources, classpath), output, sources, classpath));
+    }
+
+    @Test
+    public void missingStampIsNotUpToDate() throws IOException {
+        Files.delete(stamp);
+        assertFalse(upToDate(stamp, inputs(parameters, sources, classpath), output, sources, classpath));
+    }
+
+    @Test
+    public void missingOutputDirectoryIsNotUpToDate() throws IOException {
+        Files.delete(output.toPath());
+        assertFalse(upToDate(stamp, inputs(parameters, sources, classpath), output, sources, classpath));
+    }
+
+    @Test
+    public void modifiedSourceIsNotUpToDate() throws IOException {
+        file("src/Binding.java", STAMP_TIME + 60_000);
+        assertFalse(upToDate(stamp, inputs(parameters, sources, classpath), output, sources, classpath));
+    }
+
+    @Test
+    public void modifiedClasspathJarIsNotUpToDate() throws IOException {
+        file("lib/api.jar", STAMP_TIME + 60_000);
+        assertFalse(upToDate(stamp, inputs(parameters, sources, classpath), output, sources, classpath));
+    }
+
+    @Test
+    public void modifiedClassInClasspathDirectoryIsNotUpToDate() throws IOException {
+        file("classes/fluent/Api.class", STAMP_TIME + 60_000);
+        assertFalse(upToDate(stamp, inputs(parameters, sources, classpath), output, sources, classpath));
+    }
+
+    @Test
+    public void addedSourceIsNotUpToDate() throws IOException {
+        List<File> added = asList(sources.get(0), file("src/Other.java", STAMP_TIME - 120_000).toFile());
+        assertFalse(upToDate(stamp, inputs(parameters, added, classpath), output, added, classpath));
+    }
+
+    @Test
+    public void changedEncodingIsNotUpToDate() throws IOException {
+        List<String> changed = asList("encoding=ISO-8859-1", "parallelism=1");
+        assertNotEquals(inputs(changed, sources, classpath), inputs(parameters, sources, classpath));
+        assertFalse(upToDate(stamp, inputs(changed, sources, classpath), output, sources, classpath));
+    }
+
+    @Test
+    public void changedParallelismIsNotUpToDate() throws IOException {
+        List<String> changed = asList("encoding=UTF-8", "parallelism=4");
+        assertFalse(upToDate(stamp, inputs(changed, sources, classpath), output, sources, classpath));
+    }
+
+}